@@ -0,0 +1,402 @@
+package com.morgan.design.properties.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <p>
+ * Generates a <code>ReloadableInjector</code> for every concrete class compiled alongside the processor which declares or inherits fields annotated with
+ * <code>@ReloadableProperty</code>. The injector lists the property key and declaring class of each field and assigns converted values to the fields
+ * directly, the runtime uses it in place of reflectively scanning the class.
+ * </p>
+ * <p>
+ * Injectors are generated into the package of the processed class and named after it, <code>Outer_Inner_ReloadableInjector</code> for a nested class
+ * <code>Outer.Inner</code>. Every processed class is listed in the {@value #INDEX_LOCATION} index, classes are only indexed if all their annotated fields
+ * can be written from the generated injector; classes with private or non handle final fields are left to the reflective scan, a note is reported for each.
+ * The index is merged with the index of an earlier compile, entries of classes not processed by an incremental compile are kept as long as the class still
+ * exists.
+ * </p>
+ *
+ * @author James Morgan
+ */
+@SupportedAnnotationTypes("*")
+public class ReloadablePropertyProcessor extends AbstractProcessor {
+
+	/**
+	 * Location of the generated index, matches <code>GeneratedInjectors.INDEX_LOCATION</code> of the runtime
+	 */
+	public static final String INDEX_LOCATION = "META-INF/reloadable-properties/injectors.properties";
+
+	static final String INJECTOR_SUFFIX = "_ReloadableInjector";
+
+	private static final String ANNOTATION = "com.morgan.design.properties.ReloadableProperty";
+	private static final String HANDLE_PACKAGE = "com.morgan.design.properties.";
+	private static final String[] HANDLES = { "ReloadableValue", "ReloadableInt", "ReloadableLong", "ReloadableBoolean", "ReloadableDouble" };
+
+	private final Map<String, String> injectors = new TreeMap<String, String>();
+	private final Set<String> unindexed = new HashSet<String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!this.injectors.isEmpty() || !this.unindexed.isEmpty()) {
+				writeIndex();
+			}
+			return false;
+		}
+		for (final TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+			processType(type);
+		}
+		return false;
+	}
+
+	private void processType(final TypeElement type) {
+		for (final TypeElement memberType : ElementFilter.typesIn(type.getEnclosedElements())) {
+			processType(memberType);
+		}
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers()
+			.contains(Modifier.ABSTRACT)) {
+			return;
+		}
+
+		final List<Binding> bindings = new ArrayList<Binding>();
+		for (TypeElement current = type; null != current; current = superclassOf(current)) {
+			for (final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				final String propertyName = propertyNameOf(field);
+				if (null != propertyName) {
+					bindings.add(new Binding(current, field, propertyName));
+				}
+			}
+		}
+		if (bindings.isEmpty()) {
+			return;
+		}
+
+		final String binaryName = this.processingEnv.getElementUtils()
+			.getBinaryName(type)
+			.toString();
+		final String unsupported = unsupportedReason(type, bindings);
+		if (null != unsupported) {
+			this.unindexed.add(binaryName);
+			this.processingEnv.getMessager()
+				.printMessage(Diagnostic.Kind.NOTE, "No injector generated, " + unsupported + ", the class will be scanned reflectively", type);
+			return;
+		}
+
+		final String packageName = packageOf(type).getQualifiedName()
+			.toString();
+		final String injectorName = injectorSimpleName(type);
+		final String qualifiedInjectorName = packageName.isEmpty()
+				? injectorName
+				: packageName + "." + injectorName;
+		try {
+			writeInjector(type, packageName, injectorName, qualifiedInjectorName, bindings);
+		}
+		catch (final IOException e) {
+			this.processingEnv.getMessager()
+				.printMessage(Diagnostic.Kind.ERROR, "Unable to write injector [" + qualifiedInjectorName + "]: " + e.getMessage(), type);
+			return;
+		}
+		this.injectors.put(binaryName, qualifiedInjectorName);
+	}
+
+	private String unsupportedReason(final TypeElement type, final List<Binding> bindings) {
+		for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+			final TypeElement currentType = (TypeElement) current;
+			if (currentType.getNestingKind() != NestingKind.TOP_LEVEL && currentType.getNestingKind() != NestingKind.MEMBER) {
+				return "the class is local or anonymous";
+			}
+			if (currentType.getModifiers()
+				.contains(Modifier.PRIVATE)) {
+				return "the class is private";
+			}
+		}
+		final PackageElement typePackage = packageOf(type);
+		for (final Binding binding : bindings) {
+			final Set<Modifier> modifiers = binding.field.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE)) {
+				return "field [" + binding.field.getSimpleName() + "] is private";
+			}
+			if (modifiers.contains(Modifier.FINAL) && !binding.handle) {
+				return "field [" + binding.field.getSimpleName() + "] is final";
+			}
+			if (!packageOf(binding.declaringType).equals(typePackage) && !(modifiers.contains(Modifier.PUBLIC) && isPublic(binding.declaringType))) {
+				return "field [" + binding.field.getSimpleName() + "] is not accessible from package [" + typePackage.getQualifiedName() + "]";
+			}
+		}
+		return null;
+	}
+
+	private void writeInjector(final TypeElement type, final String packageName, final String injectorName, final String qualifiedInjectorName,
+			final List<Binding> bindings) throws IOException {
+		final String typeName = erasure(type.asType());
+
+		final StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ")
+				.append(packageName)
+				.append(";\n\n");
+		}
+		source.append("import java.util.Arrays;\n")
+			.append("import java.util.List;\n\n")
+			.append("import com.morgan.design.properties.bean.FieldWriter;\n")
+			.append("import com.morgan.design.properties.bean.InjectorBinding;\n")
+			.append("import com.morgan.design.properties.bean.ReloadableInjector;\n\n")
+			.append("/**\n * Generated by ")
+			.append(getClass().getName())
+			.append(" for {@link ")
+			.append(typeName)
+			.append("}, do not edit.\n */\n")
+			.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+			.append("public final class ")
+			.append(injectorName)
+			.append(" implements ReloadableInjector {\n\n")
+			.append("\t@Override\n")
+			.append("\tpublic List<InjectorBinding> getBindings() {\n")
+			.append("\t\treturn Arrays.asList(");
+
+		for (int i = 0; i < bindings.size(); i++) {
+			final Binding binding = bindings.get(i);
+			source.append(i == 0
+					? "\n"
+					: ",\n")
+				.append("\t\t\tnew InjectorBinding(")
+				.append(erasure(binding.declaringType.asType()))
+				.append(".class, ")
+				.append(this.processingEnv.getElementUtils()
+					.getConstantExpression(binding.field.getSimpleName()
+						.toString()))
+				.append(", ")
+				.append(this.processingEnv.getElementUtils()
+					.getConstantExpression(binding.propertyName))
+				.append(", ");
+			if (binding.handle) {
+				source.append("null)");
+			}
+			else {
+				source.append("new FieldWriter() {\n")
+					.append("\t\t\t\t@Override\n")
+					.append("\t\t\t\tpublic void write(final Object bean, final Object value) {\n")
+					.append("\t\t\t\t\t((")
+					.append(erasure(binding.declaringType.asType()))
+					.append(") bean).")
+					.append(binding.field.getSimpleName())
+					.append(" = (")
+					.append(boxedErasure(binding.field.asType()))
+					.append(") value;\n")
+					.append("\t\t\t\t}\n")
+					.append("\t\t\t})");
+			}
+		}
+		source.append(");\n")
+			.append("\t}\n")
+			.append("}\n");
+
+		final JavaFileObject sourceFile = this.processingEnv.getFiler()
+			.createSourceFile(qualifiedInjectorName, type);
+		final Writer writer = sourceFile.openWriter();
+		try {
+			writer.write(source.toString());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	// entries of classes outside this compilation are kept, an incremental compile only replaces the entries of the classes it processed
+	private void writeIndex() {
+		final Map<String, String> entries = new TreeMap<String, String>();
+		for (final Map.Entry<String, String> existing : readExistingIndex().entrySet()) {
+			final String className = existing.getKey();
+			if (!this.unindexed.contains(className) && null != this.processingEnv.getElementUtils()
+				.getTypeElement(className.replace('$', '.'))) {
+				entries.put(className, existing.getValue());
+			}
+		}
+		entries.putAll(this.injectors);
+
+		try {
+			final FileObject index = this.processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			final Writer writer = index.openWriter();
+			try {
+				writer.write("# Generated by " + getClass().getName() + ", do not edit\n");
+				for (final Map.Entry<String, String> injector : entries.entrySet()) {
+					writer.write(injector.getKey() + "=" + injector.getValue() + "\n");
+				}
+			}
+			finally {
+				writer.close();
+			}
+		}
+		catch (final IOException e) {
+			this.processingEnv.getMessager()
+				.printMessage(Diagnostic.Kind.ERROR, "Unable to write injector index [" + INDEX_LOCATION + "]: " + e.getMessage());
+		}
+	}
+
+	private Map<String, String> readExistingIndex() {
+		final Map<String, String> entries = new TreeMap<String, String>();
+		try {
+			final FileObject index = this.processingEnv.getFiler()
+				.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			final Properties existing = new Properties();
+			final InputStream inputStream = index.openInputStream();
+			try {
+				existing.load(inputStream);
+			}
+			finally {
+				inputStream.close();
+			}
+			for (final String className : existing.stringPropertyNames()) {
+				entries.put(className, existing.getProperty(className));
+			}
+		}
+		catch (final IOException e) {
+			// no index written by an earlier compile
+		}
+		return entries;
+	}
+
+	private static String propertyNameOf(final VariableElement field) {
+		for (final AnnotationMirror annotation : field.getAnnotationMirrors()) {
+			final TypeElement annotationType = (TypeElement) annotation.getAnnotationType()
+				.asElement();
+			if (annotationType.getQualifiedName()
+				.contentEquals(ANNOTATION)) {
+				for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues()
+					.entrySet()) {
+					if (value.getKey()
+						.getSimpleName()
+						.contentEquals("value")) {
+						return (String) value.getValue()
+							.getValue();
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isHandle(final TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		final String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName()
+			.toString();
+		for (final String handle : HANDLES) {
+			if (name.equals(HANDLE_PACKAGE + handle)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPublic(final TypeElement type) {
+		for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+			if (!current.getModifiers()
+				.contains(Modifier.PUBLIC)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static TypeElement superclassOf(final TypeElement type) {
+		final TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		final TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+		return superType.getQualifiedName()
+			.contentEquals(Object.class.getName())
+				? null
+				: superType;
+	}
+
+	private static PackageElement packageOf(final Element element) {
+		Element current = element;
+		while (!(current instanceof PackageElement)) {
+			current = current.getEnclosingElement();
+		}
+		return (PackageElement) current;
+	}
+
+	private static String injectorSimpleName(final TypeElement type) {
+		final StringBuilder name = new StringBuilder(type.getSimpleName());
+		for (Element current = type.getEnclosingElement(); current instanceof TypeElement; current = current.getEnclosingElement()) {
+			name.insert(0, current.getSimpleName() + "_");
+		}
+		return name.append(INJECTOR_SUFFIX)
+			.toString();
+	}
+
+	private String erasure(final TypeMirror type) {
+		return this.processingEnv.getTypeUtils()
+			.erasure(type)
+			.toString();
+	}
+
+	private String boxedErasure(final TypeMirror type) {
+		if (type.getKind()
+			.isPrimitive()) {
+			return this.processingEnv.getTypeUtils()
+				.boxedClass(this.processingEnv.getTypeUtils()
+					.getPrimitiveType(type.getKind()))
+				.getQualifiedName()
+				.toString();
+		}
+		return erasure(type);
+	}
+
+	private static class Binding {
+
+		private final TypeElement declaringType;
+		private final VariableElement field;
+		private final String propertyName;
+		private final boolean handle;
+
+		Binding(final TypeElement declaringType, final VariableElement field, final String propertyName) {
+			this.declaringType = declaringType;
+			this.field = field;
+			this.propertyName = propertyName;
+			this.handle = isHandle(field.asType());
+		}
+	}
+}
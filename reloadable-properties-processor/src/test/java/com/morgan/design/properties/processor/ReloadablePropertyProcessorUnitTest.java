@@ -0,0 +1,183 @@
+package com.morgan.design.properties.processor;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReloadablePropertyProcessorUnitTest {
+
+	private Path sources;
+	private Path generated;
+	private Path classes;
+
+	@Before
+	public void setUp() throws IOException {
+		final Path root = Files.createTempDirectory("processor");
+		this.sources = Files.createDirectories(root.resolve("src"));
+		this.generated = Files.createDirectories(root.resolve("generated"));
+		this.classes = Files.createDirectories(root.resolve("classes"));
+
+		// minimal copies of the runtime types referenced by generated injectors
+		source("com.morgan.design.properties.ReloadableProperty", "package com.morgan.design.properties;",
+				"@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)",
+				"public @interface ReloadableProperty { String value(); }");
+		source("com.morgan.design.properties.ReloadableValue", "package com.morgan.design.properties;", "public final class ReloadableValue<T> {}");
+		source("com.morgan.design.properties.bean.FieldWriter", "package com.morgan.design.properties.bean;",
+				"public interface FieldWriter { void write(Object bean, Object value); }");
+		source("com.morgan.design.properties.bean.InjectorBinding", "package com.morgan.design.properties.bean;", "public class InjectorBinding {",
+				"public InjectorBinding(Class<?> declaringClass, String fieldName, String propertyName, FieldWriter fieldWriter) {} }");
+		source("com.morgan.design.properties.bean.ReloadableInjector", "package com.morgan.design.properties.bean;",
+				"public interface ReloadableInjector { java.util.List<InjectorBinding> getBindings(); }");
+	}
+
+	@Test
+	public void shouldGenerateInjectorWritingFieldsDirectly() throws IOException {
+		source("beans.Base", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public abstract class Base {",
+				"@ReloadableProperty(\"base.value\") protected volatile long baseValue; }");
+		source("beans.Bean", "package beans;", "import com.morgan.design.properties.*;", "public class Bean extends Base {",
+				"@ReloadableProperty(\"bean.\\\"quoted\\\"\") volatile int intValue;",
+				"@ReloadableProperty(\"bean.list\") volatile java.util.List<String> listValue;",
+				"@ReloadableProperty(\"bean.handle\") final ReloadableValue<String> handle = new ReloadableValue<String>(); }");
+
+		compile();
+
+		final String injector = generated("beans.Bean_ReloadableInjector");
+		assertThat(injector, containsString("new InjectorBinding(beans.Bean.class, \"intValue\", \"bean.\\\"quoted\\\"\", new FieldWriter() {"));
+		assertThat(injector, containsString("((beans.Bean) bean).intValue = (java.lang.Integer) value;"));
+		assertThat(injector, containsString("((beans.Bean) bean).listValue = (java.util.List) value;"));
+		assertThat(injector, containsString("new InjectorBinding(beans.Bean.class, \"handle\", \"bean.handle\", null)"));
+		assertThat(injector, containsString("((beans.Base) bean).baseValue = (java.lang.Long) value;"));
+		assertThat(index().getProperty("beans.Bean"), is("beans.Bean_ReloadableInjector"));
+		assertThat(index().containsKey("beans.Base"), is(false));
+	}
+
+	@Test
+	public void shouldIndexNestedClassByBinaryName() throws IOException {
+		source("beans.Outer", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Outer {",
+				"public static class Inner { @ReloadableProperty(\"inner.value\") String value; } }");
+
+		compile();
+
+		assertThat(index().getProperty("beans.Outer$Inner"), is("beans.Outer_Inner_ReloadableInjector"));
+		assertThat(generated("beans.Outer_Inner_ReloadableInjector"), containsString("((beans.Outer.Inner) bean).value = (java.lang.String) value;"));
+	}
+
+	@Test
+	public void shouldLeaveClassesWithPrivateFieldsToReflection() throws IOException {
+		source("beans.Private", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Private {",
+				"@ReloadableProperty(\"private.value\") private String value;", "@ReloadableProperty(\"package.value\") String other; }");
+		source("beans.Visible", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Visible {",
+				"@ReloadableProperty(\"visible.value\") String value; }");
+
+		compile();
+
+		assertThat(this.generated.resolve("beans/Private_ReloadableInjector.java")
+			.toFile()
+			.exists(), is(false));
+		assertThat(index().containsKey("beans.Private"), is(false));
+		assertThat(index().stringPropertyNames()
+			.toString(), not(containsString("Private")));
+		assertThat(index().getProperty("beans.Visible"), is("beans.Visible_ReloadableInjector"));
+	}
+
+	@Test
+	public void shouldWriteShadowedFieldThroughDeclaringClass() throws IOException {
+		source("beans.Base", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Base {",
+				"@ReloadableProperty(\"base.value\") String value; }");
+		source("beans.Shadowing", "package beans;", "public class Shadowing extends Base { String value; }");
+
+		compile();
+
+		final String injector = generated("beans.Shadowing_ReloadableInjector");
+		assertThat(injector, containsString("new InjectorBinding(beans.Base.class, \"value\", \"base.value\""));
+		assertThat(injector, containsString("((beans.Base) bean).value = (java.lang.String) value;"));
+	}
+
+	@Test
+	public void shouldKeepIndexEntriesOfClassesNotRecompiled() throws IOException {
+		source("beans.First", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class First {",
+				"@ReloadableProperty(\"first.value\") String value; }");
+		source("beans.Second", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Second {",
+				"@ReloadableProperty(\"second.value\") String value; }");
+		compile();
+
+		// recompile only the second class, against the classes of the first compile
+		Files.delete(this.sources.resolve("beans/First.java"));
+		source("beans.Second", "package beans;", "import com.morgan.design.properties.ReloadableProperty;", "public class Second {",
+				"@ReloadableProperty(\"second.value\") private String value; }");
+		compile();
+
+		assertThat(index().getProperty("beans.First"), is("beans.First_ReloadableInjector"));
+		assertThat(index().containsKey("beans.Second"), is(false));
+	}
+
+	private void source(final String className, final String... lines) throws IOException {
+		final Path file = this.sources.resolve(className.replace('.', File.separatorChar) + ".java");
+		Files.createDirectories(file.getParent());
+		Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	private void compile() throws IOException {
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+		try {
+			final List<File> files = new ArrayList<File>();
+			collectSources(this.sources.toFile(), files);
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-d", this.classes.toString(), "-s",
+					this.generated.toString(), "-classpath", this.classes.toString()), null, fileManager.getJavaFileObjectsFromFiles(files));
+			task.setProcessors(Arrays.asList(new ReloadablePropertyProcessor()));
+			final boolean success = task.call();
+			assertThat(diagnostics.getDiagnostics()
+				.toString(), success, is(true));
+		}
+		finally {
+			fileManager.close();
+		}
+	}
+
+	private static void collectSources(final File directory, final List<File> files) {
+		for (final File file : directory.listFiles()) {
+			if (file.isDirectory()) {
+				collectSources(file, files);
+			}
+			else if (file.getName()
+				.endsWith(".java")) {
+				files.add(file);
+			}
+		}
+	}
+
+	private String generated(final String className) throws IOException {
+		return new String(Files.readAllBytes(this.generated.resolve(className.replace('.', File.separatorChar) + ".java")), StandardCharsets.UTF_8);
+	}
+
+	private Properties index() throws IOException {
+		final Properties index = new Properties();
+		try (final InputStream inputStream = Files.newInputStream(this.classes.resolve(ReloadablePropertyProcessor.INDEX_LOCATION))) {
+			index.load(inputStream);
+		}
+		return index;
+	}
+}
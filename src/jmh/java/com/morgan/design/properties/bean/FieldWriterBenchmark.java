@@ -0,0 +1,66 @@
+package com.morgan.design.properties.bean;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a single field write through the {@link FieldWriter} chosen by {@link FieldWriters#forField(Field)} against the reflective writer
+ * 
+ * @author James Morgan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldWriterBenchmark {
+
+	@Param({ "intValue", "stringValue" })
+	public String targetField;
+
+	private final Target target = new Target();
+	private FieldWriter methodHandleWriter;
+	private FieldWriter reflectiveWriter;
+	private Object value;
+
+	@Setup
+	public void setUp() throws NoSuchFieldException {
+		final Field field = Target.class.getDeclaredField(this.targetField);
+		field.setAccessible(true);
+		this.methodHandleWriter = FieldWriters.forField(field);
+		this.reflectiveWriter = FieldWriters.reflective(field);
+		this.value = "intValue".equals(this.targetField)
+				? (Object) 42
+				: "value";
+	}
+
+	@Benchmark
+	public Target methodHandleWrite() {
+		this.methodHandleWriter.write(this.target, this.value);
+		return this.target;
+	}
+
+	@Benchmark
+	public Target reflectiveWrite() {
+		this.reflectiveWriter.write(this.target, this.value);
+		return this.target;
+	}
+
+	public static class Target {
+		int intValue;
+		String stringValue;
+	}
+}
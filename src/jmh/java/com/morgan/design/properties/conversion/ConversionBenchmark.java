@@ -0,0 +1,87 @@
+package com.morgan.design.properties.conversion;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.Period;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Cost of {@link DefaultPropertyConversionService} per target type, converting through {@link PropertyConversionService#convertPropertyForField(Field, Object)}
+ * and through a converter resolved once, with and without the conversion cache
+ * 
+ * @author James Morgan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+	private static final ImmutableMap<String, String> VALUES = ImmutableMap.<String, String> builder()
+		.put("intValue", "42")
+		.put("booleanValue", "true")
+		.put("stringValue", "value")
+		.put("bigDecimalValue", "1234.5678")
+		.put("period", "24:00:00")
+		.put("localDate", "2013-11-09")
+		.put("localDateTime", "2013-11-09 12:56:02")
+		.build();
+
+	@Param({ "intValue", "booleanValue", "stringValue", "bigDecimalValue", "period", "localDate", "localDateTime" })
+	public String targetField;
+
+	@Param({ "0", "1024" })
+	public long conversionCacheSize;
+
+	private DefaultPropertyConversionService conversionService;
+	private Field field;
+	private PropertyConverter converter;
+	private String value;
+
+	@Setup
+	public void setUp() throws NoSuchFieldException {
+		this.conversionService = new DefaultPropertyConversionService();
+		this.conversionService.setConversionCacheSize(this.conversionCacheSize);
+		this.field = Target.class.getDeclaredField(this.targetField);
+		this.converter = this.conversionService.resolveConverter(this.field);
+		this.value = VALUES.get(this.targetField);
+	}
+
+	@Benchmark
+	public Object convertPropertyForField() {
+		return this.conversionService.convertPropertyForField(this.field, this.value);
+	}
+
+	@Benchmark
+	public Object convertWithResolvedConverter() {
+		return this.converter.convert(this.value);
+	}
+
+	static class Target {
+		int intValue;
+		boolean booleanValue;
+		String stringValue;
+		BigDecimal bigDecimalValue;
+		Period period;
+		LocalDate localDate;
+		LocalDateTime localDateTime;
+	}
+}
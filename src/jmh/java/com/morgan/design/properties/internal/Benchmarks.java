@@ -0,0 +1,57 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.springframework.core.io.Resource;
+
+import com.google.common.eventbus.EventBus;
+import com.morgan.design.properties.conversion.DefaultPropertyConversionService;
+import com.morgan.design.properties.event.GuavaPropertyChangedEventNotifier;
+import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+import com.morgan.design.properties.resolver.SubstitutingPropertyResolver;
+
+/**
+ * Wiring shared by the benchmarks, equivalent to <code>spring-reloadableProperties.xml</code> without starting a watcher
+ * 
+ * @author James Morgan
+ */
+final class Benchmarks {
+
+	private Benchmarks() {
+		// utility
+	}
+
+	static ReadablePropertySourcesPlaceholderConfigurer configurer(final PropertyChangedEventNotifier eventNotifier, final Properties properties)
+			throws IOException {
+		final ReadablePropertySourcesPlaceholderConfigurer configurer = new ReadablePropertySourcesPlaceholderConfigurer(eventNotifier,
+				new SubstitutingPropertyResolver());
+		configurer.setProperties(properties);
+		configurer.mergeProperties();
+		return configurer;
+	}
+
+	static ReadablePropertySourcesPlaceholderConfigurer configurer(final PropertyChangedEventNotifier eventNotifier, final Resource location)
+			throws IOException {
+		final ReadablePropertySourcesPlaceholderConfigurer configurer = new ReadablePropertySourcesPlaceholderConfigurer(eventNotifier,
+				new SubstitutingPropertyResolver());
+		configurer.setLocations(new Resource[] { location });
+		configurer.mergeProperties();
+		return configurer;
+	}
+
+	static PropertyChangedEventNotifier eventNotifier() {
+		return new GuavaPropertyChangedEventNotifier(new EventBus());
+	}
+
+	/**
+	 * @return a processor registered for change events, the configurer's resources are not watched
+	 */
+	static ReloadablePropertyPostProcessor processor(final ReadablePropertySourcesPlaceholderConfigurer configurer,
+			final PropertyChangedEventNotifier eventNotifier) {
+		final ReloadablePropertyPostProcessor processor = new ReloadablePropertyPostProcessor(configurer, eventNotifier,
+				new DefaultPropertyConversionService());
+		eventNotifier.register(processor);
+		return processor;
+	}
+}
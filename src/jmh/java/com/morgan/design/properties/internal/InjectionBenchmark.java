@@ -0,0 +1,121 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Period;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+
+/**
+ * Cost of {@link ReloadablePropertyPostProcessor#postProcessAfterInstantiation(Object, String)} per bean, by number of annotated fields
+ * 
+ * @author James Morgan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+	@Param({ "1", "4", "16" })
+	public int fields;
+
+	private ReloadablePropertyPostProcessor processor;
+
+	@Setup
+	public void setUp() throws IOException {
+		final Properties properties = new Properties();
+		for (int i = 0; i < 16; i++) {
+			properties.setProperty("bench.string." + i, "value " + i);
+			properties.setProperty("bench.int." + i, String.valueOf(i));
+		}
+		properties.setProperty("bench.period", "24:00:00");
+		final PropertyChangedEventNotifier eventNotifier = Benchmarks.eventNotifier();
+		this.processor = Benchmarks.processor(Benchmarks.configurer(eventNotifier, properties), eventNotifier);
+	}
+
+	@Benchmark
+	public Object postProcessAfterInstantiation() {
+		final Object bean = newBean();
+		this.processor.postProcessAfterInstantiation(bean, "bean");
+		return bean;
+	}
+
+	private Object newBean() {
+		switch (this.fields) {
+			case 1:
+				return new OneFieldBean();
+			case 4:
+				return new FourFieldBean();
+			default:
+				return new SixteenFieldBean();
+		}
+	}
+
+	public static class OneFieldBean {
+		@ReloadableProperty("bench.string.0")
+		String string0;
+	}
+
+	public static class FourFieldBean {
+		@ReloadableProperty("bench.string.0")
+		String string0;
+		@ReloadableProperty("bench.int.0")
+		int int0;
+		@ReloadableProperty("bench.int.1")
+		long long1;
+		@ReloadableProperty("bench.period")
+		Period period;
+	}
+
+	public static class SixteenFieldBean {
+		@ReloadableProperty("bench.string.0")
+		String string0;
+		@ReloadableProperty("bench.string.1")
+		String string1;
+		@ReloadableProperty("bench.string.2")
+		String string2;
+		@ReloadableProperty("bench.string.3")
+		String string3;
+		@ReloadableProperty("bench.string.4")
+		String string4;
+		@ReloadableProperty("bench.string.5")
+		String string5;
+		@ReloadableProperty("bench.string.6")
+		String string6;
+		@ReloadableProperty("bench.string.7")
+		String string7;
+		@ReloadableProperty("bench.int.0")
+		int int0;
+		@ReloadableProperty("bench.int.1")
+		int int1;
+		@ReloadableProperty("bench.int.2")
+		long long2;
+		@ReloadableProperty("bench.int.3")
+		long long3;
+		@ReloadableProperty("bench.int.4")
+		double double4;
+		@ReloadableProperty("bench.int.5")
+		double double5;
+		@ReloadableProperty("bench.int.6")
+		Integer integer6;
+		@ReloadableProperty("bench.period")
+		Period period;
+	}
+}
@@ -0,0 +1,115 @@
+package com.morgan.design.properties.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+
+/**
+ * Latency from {@link ReadablePropertySourcesPlaceholderConfigurer#onResourceChanged(Resource)} until the new value is visible in every subscribed field, for
+ * a resource of <code>keys</code> properties all of which change on every reload and <code>subscribers</code> beans bound to one of them
+ * 
+ * @author James Morgan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReloadFanOutBenchmark {
+
+	@Param({ "1", "100", "1000" })
+	public int subscribers;
+
+	@Param({ "10", "1000", "100000" })
+	public int keys;
+
+	private final List<Subscriber> beans = Lists.newArrayList();
+	private File file;
+	private Resource resource;
+	private ReadablePropertySourcesPlaceholderConfigurer configurer;
+	private String[] contents;
+	private int generation;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("fanout", ".properties");
+		this.contents = new String[] { content("a"), content("b") };
+		Files.write(this.contents[0], this.file, Charsets.ISO_8859_1);
+		this.resource = new FileSystemResource(this.file);
+
+		final PropertyChangedEventNotifier eventNotifier = Benchmarks.eventNotifier();
+		this.configurer = Benchmarks.configurer(eventNotifier, this.resource);
+		final ReloadablePropertyPostProcessor processor = Benchmarks.processor(this.configurer, eventNotifier);
+		for (int i = 0; i < this.subscribers; i++) {
+			final Subscriber bean = new Subscriber();
+			processor.postProcessAfterInstantiation(bean, "subscriber" + i);
+			this.beans.add(bean);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void rewriteResource() throws IOException {
+		this.generation++;
+		Files.write(this.contents[this.generation % 2], this.file, Charsets.ISO_8859_1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Benchmark
+	public String reloadUntilVisible() {
+		this.configurer.onResourceChanged(this.resource);
+		final String expected = this.generation % 2 == 0
+				? "a0"
+				: "b0";
+		final String visible = this.beans.get(this.beans.size() - 1).value;
+		if (!expected.equals(visible)) {
+			throw new IllegalStateException("Reload not visible, expected [" + expected + "] but was [" + visible + "]");
+		}
+		return visible;
+	}
+
+	private String content(final String prefix) {
+		final StringBuilder content = new StringBuilder();
+		for (int i = 0; i < this.keys; i++) {
+			content.append("bench.key.")
+				.append(i)
+				.append('=')
+				.append(prefix)
+				.append(i)
+				.append('\n');
+		}
+		return content.toString();
+	}
+
+	public static class Subscriber {
+		@ReloadableProperty("bench.key.0")
+		String value;
+	}
+}
@@ -0,0 +1,68 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link ReadablePropertySourcesPlaceholderConfigurer#resolveProperty(Object)} for a chain of nested placeholders, resolved from a warm snapshot and
+ * from a newly created snapshot
+ * 
+ * @author James Morgan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+
+	@Param({ "0", "1", "4", "16" })
+	public int depth;
+
+	@Param({ "100", "10000" })
+	public int properties;
+
+	private ReadablePropertySourcesPlaceholderConfigurer configurer;
+	private Properties source;
+	private String propertyName;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.source = new Properties();
+		for (int i = 0; i < this.properties; i++) {
+			this.source.setProperty("bench.filler." + i, "value " + i);
+		}
+		// bench.nested.N=${bench.nested.N-1}/N ... bench.nested.0=root
+		this.source.setProperty("bench.nested.0", "root");
+		for (int i = 1; i <= this.depth; i++) {
+			this.source.setProperty("bench.nested." + i, "${bench.nested." + (i - 1) + "}/" + i);
+		}
+		this.propertyName = "bench.nested." + this.depth;
+		this.configurer = Benchmarks.configurer(Benchmarks.eventNotifier(), this.source);
+	}
+
+	@Benchmark
+	public Object resolveFromWarmSnapshot() {
+		return this.configurer.resolveProperty(this.propertyName);
+	}
+
+	@Benchmark
+	public Object resolveFromNewSnapshot() {
+		// includes compiling the templates of every property
+		return this.configurer.resolveProperty(PropertiesSnapshot.initial(this.source), this.propertyName);
+	}
+}
@@ -0,0 +1,53 @@
+package com.morgan.design.properties;
+
+import com.google.common.base.Objects;
+
+/**
+ * Handle to a reloadable <code>long</code> property, for fields annotated with {@link ReloadableProperty}. The value is held in a volatile <code>long</code>
+ * field, {@link #getAsLong()} is a single volatile read without boxing. See {@link ReloadableValue}.
+ * 
+ * @author James Morgan
+ */
+public final class ReloadableLong {
+
+	private volatile long value;
+
+	public ReloadableLong() {
+		// value set once the bean is created
+	}
+
+	private ReloadableLong(final long value) {
+		this.value = value;
+	}
+
+	/**
+	 * @param defaultValue the value used should no property be defined when the bean is created
+	 * @return a handle holding the given value until the property is set
+	 */
+	public static ReloadableLong withDefault(final long defaultValue) {
+		return new ReloadableLong(defaultValue);
+	}
+
+	/**
+	 * @return the current value of the property, or the default if the property has not been set
+	 */
+	public long getAsLong() {
+		return this.value;
+	}
+
+	/**
+	 * Sets the value of the handle, called on every reload of the property. Values set directly are replaced by the next reload.
+	 * 
+	 * @param value the converted value of the property
+	 */
+	public void set(final long value) {
+		this.value = value;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("value", this.value)
+			.toString();
+	}
+}
@@ -0,0 +1,64 @@
+package com.morgan.design.properties;
+
+import com.google.common.base.Objects;
+
+/**
+ * <p>
+ * Handle to a reloadable property value, for fields annotated with {@link ReloadableProperty}. Rather than replacing the field on every reload the handle's
+ * value is replaced, so the field itself may be declared final:
+ * </p>
+ * 
+ * <pre>
+ * &#064;ReloadableProperty(&quot;dynamicProperty.timeout&quot;)
+ * private final ReloadableValue&lt;Period&gt; timeout = ReloadableValue.withDefault(Period.seconds(30));
+ * </pre>
+ * <p>
+ * The value is converted to the type argument of the field once per reload and held in a volatile field, {@link #get()} is a single volatile read and every
+ * thread sees a reloaded value as soon as it has been set. A null field is assigned a new handle when the bean is created.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public final class ReloadableValue<T> {
+
+	private volatile T value;
+
+	public ReloadableValue() {
+		// value set once the bean is created
+	}
+
+	private ReloadableValue(final T value) {
+		this.value = value;
+	}
+
+	/**
+	 * @param defaultValue the value used should no property be defined when the bean is created
+	 * @return a handle holding the given value until the property is set
+	 */
+	public static <T> ReloadableValue<T> withDefault(final T defaultValue) {
+		return new ReloadableValue<T>(defaultValue);
+	}
+
+	/**
+	 * @return the current value of the property, or null if the property has not been set and no default was given
+	 */
+	public T get() {
+		return this.value;
+	}
+
+	/**
+	 * Sets the value of the handle, called on every reload of the property. Values set directly are replaced by the next reload.
+	 * 
+	 * @param value the converted value of the property
+	 */
+	public void set(final T value) {
+		this.value = value;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("value", this.value)
+			.toString();
+	}
+}
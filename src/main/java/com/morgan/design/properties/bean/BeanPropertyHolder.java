@@ -1,37 +1,72 @@
 package com.morgan.design.properties.bean;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 
 import com.google.common.base.Objects;
+import com.morgan.design.properties.conversion.PropertyConverter;
 
+/**
+ * Subscription of a single bean field to a property. The bean is only weakly referenced so holding a subscription does not prevent the bean from being
+ * garbage collected, once collected {@link #getBean()} returns null and the holder's {@link BeanReference} is enqueued on the given {@link ReferenceQueue}.
+ */
 public class BeanPropertyHolder {
 
-	private final Object bean;
+	private final String propertyName;
+	private final BeanReference bean;
 	private final Field field;
+	private final FieldWriter fieldWriter;
+	private final PropertyConverter converter;
+	private final int hashCode;
 
-	public BeanPropertyHolder(Object bean, Field field) {
-		this.bean = bean;
+	public BeanPropertyHolder(String propertyName, Object bean, Field field, FieldWriter fieldWriter, PropertyConverter converter,
+			ReferenceQueue<Object> referenceQueue) {
+		this.propertyName = propertyName;
+		this.bean = new BeanReference(bean, referenceQueue, this);
 		this.field = field;
+		this.fieldWriter = fieldWriter;
+		this.converter = converter;
+		this.hashCode = Objects.hashCode(propertyName, System.identityHashCode(bean), field);
 	}
 
+	public String getPropertyName() {
+		return this.propertyName;
+	}
+
+	/**
+	 * @return the subscribed bean, or null if the bean has been garbage collected
+	 */
 	public Object getBean() {
-		return this.bean;
+		return this.bean.get();
 	}
 
 	public Field getField() {
 		return this.field;
 	}
 
+	public FieldWriter getFieldWriter() {
+		return this.fieldWriter;
+	}
+
+	public PropertyConverter getConverter() {
+		return this.converter;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(this.bean, this.field);
+		return this.hashCode;
 	}
 
 	@Override
 	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
 		if (object instanceof BeanPropertyHolder) {
 			BeanPropertyHolder that = (BeanPropertyHolder) object;
-			return Objects.equal(this.bean, that.bean) && Objects.equal(this.field, that.field);
+			Object bean = getBean();
+			return null != bean && bean == that.getBean() && Objects.equal(this.propertyName, that.propertyName) && Objects.equal(this.field, that.field);
 		}
 		return false;
 	}
@@ -39,9 +74,27 @@ public class BeanPropertyHolder {
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(this)
-			.add("bean", this.bean)
+			.add("propertyName", this.propertyName)
+			.add("bean", getBean())
 			.add("field", this.field)
 			.toString();
 	}
 
+	/**
+	 * Weak reference to the subscribed bean, enqueued once the bean is garbage collected
+	 */
+	public static class BeanReference extends WeakReference<Object> {
+
+		private final BeanPropertyHolder holder;
+
+		BeanReference(Object bean, ReferenceQueue<Object> referenceQueue, BeanPropertyHolder holder) {
+			super(bean, referenceQueue);
+			this.holder = holder;
+		}
+
+		public BeanPropertyHolder getHolder() {
+			return this.holder;
+		}
+	}
+
 }
@@ -0,0 +1,19 @@
+package com.morgan.design.properties.bean;
+
+import java.lang.reflect.Field;
+
+/**
+ * Writes a converted property value to a field of a bean, see {@link FieldWriters} for the available implementations.
+ * 
+ * @author James Morgan
+ */
+public interface FieldWriter {
+
+	/**
+	 * @param bean the bean holding the field to write
+	 * @param value the converted value to set, must be assignable to the type of the underlying {@link Field}
+	 * @throws IllegalStateException if the value could not be written
+	 */
+	void write(final Object bean, final Object value);
+
+}
@@ -0,0 +1,346 @@
+package com.morgan.design.properties.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
+
+import com.google.common.base.Objects;
+import com.morgan.design.properties.ReloadableBoolean;
+import com.morgan.design.properties.ReloadableDouble;
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableLong;
+import com.morgan.design.properties.ReloadableValue;
+
+/**
+ * Factory methods for {@link FieldWriter}s. Writers returned by {@link #forField(Field)} are backed by a {@link MethodHandle} bound to the field once, with
+ * dedicated writers for <code>int</code>, <code>long</code>, <code>boolean</code> and <code>double</code> fields which unbox the value before invoking the
+ * handle. Should a handle not be available for the field the reflective {@link Field#set(Object, Object)} writer is used instead.
+ * <p>
+ * Fields holding a {@link ReloadableValue}, or one of the primitive handles such as {@link ReloadableInt}, are not replaced, the writer sets the value of
+ * the handle held by the field instead, assigning a new handle to the field if it is null. Primitive handles hold the value unboxed.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public final class FieldWriters {
+
+	protected static Logger log = LoggerFactory.getLogger(FieldWriters.class);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private FieldWriters() {
+		// static factory methods only
+	}
+
+	/**
+	 * @param field the field to write, expected to have been made accessible
+	 * @return a {@link MethodHandle} backed writer for the given field, or a reflective writer if no handle could be created
+	 */
+	public static FieldWriter forField(final Field field) {
+		final Class<?> type = field.getType();
+		if (type == ReloadableValue.class) {
+			return new ReloadableValueFieldWriter(field);
+		}
+		if (type == ReloadableInt.class) {
+			return new ReloadableIntFieldWriter(field);
+		}
+		if (type == ReloadableLong.class) {
+			return new ReloadableLongFieldWriter(field);
+		}
+		if (type == ReloadableBoolean.class) {
+			return new ReloadableBooleanFieldWriter(field);
+		}
+		if (type == ReloadableDouble.class) {
+			return new ReloadableDoubleFieldWriter(field);
+		}
+
+		MethodHandle setter;
+		try {
+			setter = LOOKUP.unreflectSetter(field);
+		}
+		catch (final IllegalAccessException e) {
+			log.debug("Unable to create setter handle for field [{}], falling back to reflection", field);
+			return reflective(field);
+		}
+		if (Modifier.isStatic(field.getModifiers())) {
+			// static setters take no receiver, accept and ignore the bean so every writer has the same shape
+			setter = MethodHandles.dropArguments(setter, 0, Object.class);
+		}
+
+		if (type == int.class) {
+			return new IntFieldWriter(field, setter);
+		}
+		if (type == long.class) {
+			return new LongFieldWriter(field, setter);
+		}
+		if (type == boolean.class) {
+			return new BooleanFieldWriter(field, setter);
+		}
+		if (type == double.class) {
+			return new DoubleFieldWriter(field, setter);
+		}
+		return new ObjectFieldWriter(field, setter);
+	}
+
+	/**
+	 * @param type the type of a field
+	 * @return true if fields of the given type hold a handle whose value is set on reload, rather than the value itself
+	 */
+	public static boolean isReloadableHandle(final Class<?> type) {
+		return ReloadableValue.class == type || ReloadableInt.class == type || ReloadableLong.class == type || ReloadableBoolean.class == type
+				|| ReloadableDouble.class == type;
+	}
+
+	/**
+	 * @param field the field to write, expected to have been made accessible
+	 * @return a writer setting the field via {@link Field#set(Object, Object)}
+	 */
+	public static FieldWriter reflective(final Field field) {
+		return new ReflectiveFieldWriter(field);
+	}
+
+	private static IllegalStateException writeFailed(final Field field, final Throwable cause) {
+		return new IllegalStateException(String.format("Unable to write field [%s] of class [%s]", field.getName(), field.getDeclaringClass()
+			.getCanonicalName()), cause);
+	}
+
+	private abstract static class MethodHandleFieldWriter implements FieldWriter {
+
+		protected final Field field;
+		protected final MethodHandle setter;
+
+		MethodHandleFieldWriter(final Field field, final MethodHandle setter, final Class<?> valueType) {
+			this.field = field;
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+		}
+
+		@Override
+		public void write(final Object bean, final Object value) {
+			try {
+				invoke(bean, value);
+			}
+			catch (final RuntimeException | Error e) {
+				throw e;
+			}
+			catch (final Throwable e) {
+				throw writeFailed(this.field, e);
+			}
+		}
+
+		protected abstract void invoke(final Object bean, final Object value) throws Throwable;
+
+		@Override
+		public String toString() {
+			return Objects.toStringHelper(this)
+				.add("field", this.field)
+				.toString();
+		}
+	}
+
+	private static class ObjectFieldWriter extends MethodHandleFieldWriter {
+
+		ObjectFieldWriter(final Field field, final MethodHandle setter) {
+			super(field, setter, Object.class);
+		}
+
+		@Override
+		protected void invoke(final Object bean, final Object value) throws Throwable {
+			this.setter.invokeExact(bean, value);
+		}
+	}
+
+	private static class IntFieldWriter extends MethodHandleFieldWriter {
+
+		IntFieldWriter(final Field field, final MethodHandle setter) {
+			super(field, setter, int.class);
+		}
+
+		@Override
+		protected void invoke(final Object bean, final Object value) throws Throwable {
+			this.setter.invokeExact(bean, ((Integer) value).intValue());
+		}
+	}
+
+	private static class LongFieldWriter extends MethodHandleFieldWriter {
+
+		LongFieldWriter(final Field field, final MethodHandle setter) {
+			super(field, setter, long.class);
+		}
+
+		@Override
+		protected void invoke(final Object bean, final Object value) throws Throwable {
+			this.setter.invokeExact(bean, ((Long) value).longValue());
+		}
+	}
+
+	private static class BooleanFieldWriter extends MethodHandleFieldWriter {
+
+		BooleanFieldWriter(final Field field, final MethodHandle setter) {
+			super(field, setter, boolean.class);
+		}
+
+		@Override
+		protected void invoke(final Object bean, final Object value) throws Throwable {
+			this.setter.invokeExact(bean, ((Boolean) value).booleanValue());
+		}
+	}
+
+	private static class DoubleFieldWriter extends MethodHandleFieldWriter {
+
+		DoubleFieldWriter(final Field field, final MethodHandle setter) {
+			super(field, setter, double.class);
+		}
+
+		@Override
+		protected void invoke(final Object bean, final Object value) throws Throwable {
+			this.setter.invokeExact(bean, ((Double) value).doubleValue());
+		}
+	}
+
+	/**
+	 * Writer setting the value of the handle held by a field, assigning a new handle to the field if it is null
+	 */
+	private abstract static class HandleFieldWriter<H> implements FieldWriter {
+
+		private final Field field;
+
+		HandleFieldWriter(final Field field) {
+			this.field = field;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void write(final Object bean, final Object value) {
+			H handle = (H) ReflectionUtils.getField(this.field, bean);
+			if (null == handle) {
+				// only when the bean is created, the same handle is updated by every reload
+				handle = newHandle();
+				ReflectionUtils.setField(this.field, bean, handle);
+			}
+			set(handle, value);
+		}
+
+		protected abstract H newHandle();
+
+		protected abstract void set(final H handle, final Object value);
+
+		@Override
+		public String toString() {
+			return Objects.toStringHelper(this)
+				.add("field", this.field)
+				.toString();
+		}
+	}
+
+	private static class ReloadableValueFieldWriter extends HandleFieldWriter<ReloadableValue<Object>> {
+
+		ReloadableValueFieldWriter(final Field field) {
+			super(field);
+		}
+
+		@Override
+		protected ReloadableValue<Object> newHandle() {
+			return new ReloadableValue<Object>();
+		}
+
+		@Override
+		protected void set(final ReloadableValue<Object> handle, final Object value) {
+			handle.set(value);
+		}
+	}
+
+	private static class ReloadableIntFieldWriter extends HandleFieldWriter<ReloadableInt> {
+
+		ReloadableIntFieldWriter(final Field field) {
+			super(field);
+		}
+
+		@Override
+		protected ReloadableInt newHandle() {
+			return new ReloadableInt();
+		}
+
+		@Override
+		protected void set(final ReloadableInt handle, final Object value) {
+			handle.set(((Integer) value).intValue());
+		}
+	}
+
+	private static class ReloadableLongFieldWriter extends HandleFieldWriter<ReloadableLong> {
+
+		ReloadableLongFieldWriter(final Field field) {
+			super(field);
+		}
+
+		@Override
+		protected ReloadableLong newHandle() {
+			return new ReloadableLong();
+		}
+
+		@Override
+		protected void set(final ReloadableLong handle, final Object value) {
+			handle.set(((Long) value).longValue());
+		}
+	}
+
+	private static class ReloadableBooleanFieldWriter extends HandleFieldWriter<ReloadableBoolean> {
+
+		ReloadableBooleanFieldWriter(final Field field) {
+			super(field);
+		}
+
+		@Override
+		protected ReloadableBoolean newHandle() {
+			return new ReloadableBoolean();
+		}
+
+		@Override
+		protected void set(final ReloadableBoolean handle, final Object value) {
+			handle.set(((Boolean) value).booleanValue());
+		}
+	}
+
+	private static class ReloadableDoubleFieldWriter extends HandleFieldWriter<ReloadableDouble> {
+
+		ReloadableDoubleFieldWriter(final Field field) {
+			super(field);
+		}
+
+		@Override
+		protected ReloadableDouble newHandle() {
+			return new ReloadableDouble();
+		}
+
+		@Override
+		protected void set(final ReloadableDouble handle, final Object value) {
+			handle.set(((Double) value).doubleValue());
+		}
+	}
+
+	private static class ReflectiveFieldWriter implements FieldWriter {
+
+		private final Field field;
+
+		ReflectiveFieldWriter(final Field field) {
+			this.field = field;
+		}
+
+		@Override
+		public void write(final Object bean, final Object value) {
+			ReflectionUtils.setField(this.field, bean, value);
+		}
+
+		@Override
+		public String toString() {
+			return Objects.toStringHelper(this)
+				.add("field", this.field)
+				.toString();
+		}
+	}
+}
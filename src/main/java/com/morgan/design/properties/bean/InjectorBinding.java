@@ -0,0 +1,55 @@
+package com.morgan.design.properties.bean;
+
+import com.google.common.base.Objects;
+
+/**
+ * A field annotated with {@link com.morgan.design.properties.ReloadableProperty} as seen at compile time by a generated {@link ReloadableInjector}, the
+ * property key and declaring class are precomputed and the field is written directly rather than through reflection.
+ * 
+ * @author James Morgan
+ */
+public class InjectorBinding {
+
+	private final Class<?> declaringClass;
+	private final String fieldName;
+	private final String propertyName;
+	private final FieldWriter fieldWriter;
+
+	/**
+	 * @param declaringClass the class declaring the field
+	 * @param fieldName the name of the field
+	 * @param propertyName the property key the field is bound to
+	 * @param fieldWriter writes the field directly, or null to use a writer from {@link FieldWriters}, as for fields holding a handle
+	 */
+	public InjectorBinding(final Class<?> declaringClass, final String fieldName, final String propertyName, final FieldWriter fieldWriter) {
+		this.declaringClass = declaringClass;
+		this.fieldName = fieldName;
+		this.propertyName = propertyName;
+		this.fieldWriter = fieldWriter;
+	}
+
+	public Class<?> getDeclaringClass() {
+		return this.declaringClass;
+	}
+
+	public String getFieldName() {
+		return this.fieldName;
+	}
+
+	public String getPropertyName() {
+		return this.propertyName;
+	}
+
+	public FieldWriter getFieldWriter() {
+		return this.fieldWriter;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("declaringClass", this.declaringClass)
+			.add("fieldName", this.fieldName)
+			.add("propertyName", this.propertyName)
+			.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package com.morgan.design.properties.bean;
+
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Every property changed by a single reload, posted once per reload rather than posting a {@link PropertyModifiedEvent} per property
+ * 
+ * @author James Morgan
+ */
+public class PropertiesChangedBatch {
+
+	private final long version;
+	private final List<PropertyModifiedEvent> changes;
+
+	public PropertiesChangedBatch(final long version, final List<PropertyModifiedEvent> changes) {
+		this.version = version;
+		this.changes = ImmutableList.copyOf(changes);
+	}
+
+	/**
+	 * @return the version of the properties snapshot published by the reload
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	public List<PropertyModifiedEvent> getChanges() {
+		return this.changes;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(this.version, this.changes);
+	}
+
+	@Override
+	public boolean equals(final Object object) {
+		if (object instanceof PropertiesChangedBatch) {
+			final PropertiesChangedBatch that = (PropertiesChangedBatch) object;
+			return this.version == that.version && Objects.equal(this.changes, that.changes);
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("version", this.version)
+			.add("changes", this.changes)
+			.toString();
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.morgan.design.properties.bean;
+
+import java.util.List;
+
+/**
+ * Injects the {@link com.morgan.design.properties.ReloadableProperty} fields of a single class without reflectively scanning it. Implementations are
+ * generated at compile time by the optional <code>reloadable-properties-processor</code> module and listed in the
+ * {@value com.morgan.design.properties.internal.GeneratedInjectors#INDEX_LOCATION} index, classes without a generated injector are scanned reflectively.
+ * 
+ * @author James Morgan
+ */
+public interface ReloadableInjector {
+
+	/**
+	 * @return the annotated fields of the class and its super classes, with the property key each field is bound to
+	 */
+	List<InjectorBinding> getBindings();
+
+}
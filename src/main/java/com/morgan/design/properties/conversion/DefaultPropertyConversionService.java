@@ -1,7 +1,17 @@
 package com.morgan.design.properties.conversion;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.annotation.PostConstruct;
 
@@ -15,60 +25,340 @@ import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.NumberUtils;
 
 import com.google.common.base.Function;
-import com.google.common.base.Functions;
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.morgan.design.properties.ReloadableBoolean;
+import com.morgan.design.properties.ReloadableDouble;
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableLong;
+import com.morgan.design.properties.ReloadableValue;
 import com.morgan.design.util.JodaUtils;
 
 /**
  * Default implementation of {@link PropertyConversionService}, attempting to convert an object otherwise utilising {@link SimpleTypeConverter} if no matching
  * converter is found.
+ * <p>
+ * Converters are registered per instance and resolved once per field type, every field of the same type shares the same converter. Resolved converters are
+ * held by the injection plan of each class, so converters must be registered before the first converter is resolved, later registrations are rejected.
+ * Fields of a generic type, such as <code>List&lt;Integer&gt;</code>, are converted using the field itself and resolve a converter per field. Fields holding a
+ * {@link ReloadableValue} are converted to the type argument of the field, generic type arguments are converted to their raw type. Fields holding a primitive
+ * handle, such as {@link ReloadableInt}, are parsed directly without the bean factory's {@link TypeConverter} unless a converter is registered for the
+ * primitive type.
+ * <p>
+ * Conversions to immutable types are memoized in a bounded, least recently used cache keyed by target type, raw value and converter, converting the same value
+ * for many fields is then a single lookup. Conversions to mutable types, such as {@link java.util.Date}, are never cached as the converted instance would be
+ * shared between fields.
  * 
  * @author James Morgan
  */
 @Component
 public class DefaultPropertyConversionService implements PropertyConversionService {
 
+	public static final long DEFAULT_CONVERSION_CACHE_SIZE = 1024;
+
+	private static final Object NULL_CONVERSION = new Object();
+	private static final Set<Class<?>> IMMUTABLE_TYPES = ImmutableSet.<Class<?>> builder()
+		.add(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class)
+		.add(BigInteger.class, BigDecimal.class, Locale.class, URI.class)
+		.add(Period.class, LocalDateTime.class, LocalDate.class, LocalTime.class)
+		.build();
+
+	private static final Map<Class<?>, Class<?>> PRIMITIVE_HANDLE_TYPES = ImmutableMap.<Class<?>, Class<?>> of(ReloadableInt.class, int.class,
+			ReloadableLong.class, long.class, ReloadableBoolean.class, boolean.class, ReloadableDouble.class, double.class);
+	private static final Map<Class<?>, Function<Object, ?>> PRIMITIVE_CONVERTERS = ImmutableMap.<Class<?>, Function<Object, ?>> of(int.class,
+			new IntConverter(), long.class, new LongConverter(), boolean.class, new BooleanConverter(), double.class, new DoubleConverter());
+
 	@Autowired
 	private ConfigurableBeanFactory configurableBeanFactory;
-	private static TypeConverter DEFAULT;
-	private static Map<Class<? extends Object>, Function<Object, ?>> CONVERTS = Maps.newHashMap();
-	static {
-		CONVERTS.put(Period.class, new PeriodConverter());
-		CONVERTS.put(LocalDateTime.class, new LocalDateTimeConverter());
-		CONVERTS.put(LocalDate.class, new LocalDateConverter());
-		CONVERTS.put(LocalTime.class, new LocalTimeConverter());
-	}
-	
+
+	// Spring's type converters are not thread safe, conversions synchronize on the converter
+	private TypeConverter typeConverter = new SimpleTypeConverter();
+
+	private final Map<Class<?>, Function<Object, ?>> converters = Maps.newConcurrentMap();
+	// keyed by type, or by field for generic types as their converter is bound to the field
+	private final ConcurrentMap<Object, Function<Object, ?>> resolvedConverters = Maps.newConcurrentMap();
+	private volatile boolean resolving;
+
+	// replaced by setConversionCacheSize whilst converters may be converting on other threads
+	private volatile Cache<ConversionKey, Object> conversions = buildConversionCache(DEFAULT_CONVERSION_CACHE_SIZE);
+
+	public DefaultPropertyConversionService() {
+		registerConverter(Period.class, new PeriodConverter());
+		registerConverter(LocalDateTime.class, new LocalDateTimeConverter());
+		registerConverter(LocalDate.class, new LocalDateConverter());
+		registerConverter(LocalTime.class, new LocalTimeConverter());
+	}
+
 	@PostConstruct
 	public void init() {
-		DEFAULT = configurableBeanFactory.getTypeConverter();
+		// read by resolved converters as they convert, converters resolved earlier use the bean factory's converter too
+		this.typeConverter = this.configurableBeanFactory.getTypeConverter();
 	}
-	
+
+	/**
+	 * @param type the field type to convert properties to
+	 * @param converter the converter used in place of the bean factory's {@link TypeConverter} for fields of the given type, must be thread safe
+	 * @throws IllegalStateException if a converter has already been resolved, the converters held by existing injection plans would not see the registration
+	 */
+	public void registerConverter(final Class<?> type, final Function<Object, ?> converter) {
+		if (this.resolving) {
+			throw new IllegalStateException(String.format("Unable to register converter for [%s], converters have already been resolved", type));
+		}
+		this.converters.put(type, converter);
+	}
+
+	/**
+	 * @param conversionCacheSize maximum number of conversions memoized, zero disables the cache
+	 */
+	public void setConversionCacheSize(final long conversionCacheSize) {
+		this.conversions = buildConversionCache(conversionCacheSize);
+	}
+
+	public CacheStats getConversionCacheStats() {
+		return this.conversions.stats();
+	}
+
 	@Override
 	public Object convertPropertyForField(final Field field, final Object property) {
-		try {
-			return Functions.forMap(CONVERTS, new DefaultConverter(field.getType()))
-				.apply(field.getType())
-				.apply(property);
+		return resolveConverter(field).convert(property);
+	}
+
+	@Override
+	public PropertyConverter resolveConverter(final Field field) {
+		final Class<?> fieldType = field.getType();
+		final Class<?> primitiveType = PRIMITIVE_HANDLE_TYPES.get(fieldType);
+		if (null != primitiveType) {
+			// resolved per handle type, fields of the primitive type itself keep the bean factory's conversion
+			return new FieldConverter(field, primitiveType, converterFor(fieldType, primitiveType, PRIMITIVE_CONVERTERS.get(primitiveType)));
+		}
+		if (ReloadableValue.class == fieldType) {
+			final Class<?> valueType = TypeToken.of(valueTypeOf(field))
+				.getRawType();
+			return new FieldConverter(field, valueType, converterFor(valueType, valueType, new DefaultConverter(valueType, null)));
+		}
+		final Object key = field.getGenericType() instanceof Class
+				? fieldType
+				: field;
+		return new FieldConverter(field, fieldType, converterFor(key, fieldType, new DefaultConverter(fieldType, field)));
+	}
+
+	/**
+	 * @param key the type, or generic field, the converter is resolved for
+	 * @param type the type converted to
+	 * @param defaultConverter the converter used should no converter be registered for the type
+	 */
+	private Function<Object, ?> converterFor(final Object key, final Class<?> type, final Function<Object, ?> defaultConverter) {
+		this.resolving = true;
+		final Function<Object, ?> resolved = this.resolvedConverters.get(key);
+		if (null != resolved) {
+			return resolved;
+		}
+		final Function<Object, ?> registered = this.converters.get(type);
+		final Function<Object, ?> converter = null == registered
+				? defaultConverter
+				: registered;
+		final Function<Object, ?> existing = this.resolvedConverters.putIfAbsent(key, converter);
+		return null == existing
+				? converter
+				: existing;
+	}
+
+	/**
+	 * @return the type argument of a {@link ReloadableValue} field, or {@link Object} if the field is declared raw
+	 */
+	private static Type valueTypeOf(final Field field) {
+		final Type genericType = field.getGenericType();
+		if (genericType instanceof ParameterizedType) {
+			final Type valueType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+			if (valueType instanceof Class || valueType instanceof ParameterizedType) {
+				return valueType;
+			}
+		}
+		return Object.class;
+	}
+
+	private static boolean isImmutable(final Class<?> type) {
+		return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type);
+	}
+
+	private static Cache<ConversionKey, Object> buildConversionCache(final long maximumSize) {
+		return CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build();
+	}
+
+	/**
+	 * Converter bound to a single field, wrapping any failure in a {@link BeanInitializationException} describing the field
+	 */
+	private class FieldConverter implements PropertyConverter {
+
+		private final Field field;
+		private final Class<?> type;
+		private final Function<Object, ?> converter;
+		private final boolean cacheable;
+
+		FieldConverter(final Field field, final Class<?> type, final Function<Object, ?> converter) {
+			this.field = field;
+			this.type = type;
+			this.converter = converter;
+			this.cacheable = isImmutable(type);
+		}
+
+		@Override
+		public Object convert(final Object property) {
+			try {
+				if (null == property || !this.cacheable) {
+					return this.converter.apply(property);
+				}
+				final Object converted = DefaultPropertyConversionService.this.conversions.get(new ConversionKey(this.type, property,
+						this.converter), new Callable<Object>() {
+					@Override
+					public Object call() {
+						final Object converted = FieldConverter.this.converter.apply(property);
+						return null == converted
+								? NULL_CONVERSION
+								: converted;
+					}
+				});
+				return converted == NULL_CONVERSION
+						? null
+						: converted;
+			}
+			catch (final ExecutionException e) {
+				throw conversionFailure(property, e.getCause());
+			}
+			catch (final UncheckedExecutionException e) {
+				throw conversionFailure(property, e.getCause());
+			}
+			catch (final ExecutionError e) {
+				throw conversionFailure(property, e.getCause());
+			}
+			catch (final Throwable e) {
+				throw conversionFailure(property, e);
+			}
+		}
+
+		private BeanInitializationException conversionFailure(final Object property, final Throwable e) {
+			return new BeanInitializationException(String.format("Unable to convert property for field [%s].  Value [%s] cannot be converted to [%s]",
+					this.field.getName(), property, this.type), e);
+		}
+	}
+
+	private static class ConversionKey {
+		private final Class<?> type;
+		private final Object value;
+		private final Function<Object, ?> converter;
+		private final int hashCode;
+
+		ConversionKey(final Class<?> type, final Object value, final Function<Object, ?> converter) {
+			this.type = type;
+			this.value = value;
+			this.converter = converter;
+			this.hashCode = Objects.hashCode(type, value, System.identityHashCode(converter));
 		}
-		catch (final Throwable e) {
-			throw new BeanInitializationException(String.format("Unable to convert property for field [%s].  Value [%s] cannot be converted to [%s]",
-					field.getName(), property, field.getType()), e);
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			if (object instanceof ConversionKey) {
+				final ConversionKey that = (ConversionKey) object;
+				return this.type == that.type && this.converter == that.converter && this.value.equals(that.value);
+			}
+			return false;
 		}
 	}
 
-	private static class DefaultConverter implements Function<Object, Object> {
+	private class DefaultConverter implements Function<Object, Object> {
 		private final Class<?> type;
+		private final Field genericField;
 
-		public DefaultConverter(final Class<?> type) {
+		public DefaultConverter(final Class<?> type, final Field field) {
 			this.type = type;
+			// only generic types need the field, their converter is resolved per field
+			this.genericField = null == field || field.getGenericType() instanceof Class
+					? null
+					: field;
 		}
 
 		@Override
 		public Object apply(final Object input) {
-			return DEFAULT.convertIfNecessary(input, this.type);
+			final TypeConverter converter = DefaultPropertyConversionService.this.typeConverter;
+			synchronized (converter) {
+				return null == this.genericField
+						? converter.convertIfNecessary(input, this.type)
+						: converter.convertIfNecessary(input, this.type, this.genericField);
+			}
+		}
+	}
+
+	private static String trimmed(final Object input) {
+		return input.toString()
+			.trim();
+	}
+
+	private static class IntConverter implements Function<Object, Integer> {
+		@Override
+		public Integer apply(final Object input) {
+			if (null == input || input instanceof Integer) {
+				return (Integer) input;
+			}
+			return NumberUtils.parseNumber(trimmed(input), Integer.class);
+		}
+	}
+
+	private static class LongConverter implements Function<Object, Long> {
+		@Override
+		public Long apply(final Object input) {
+			if (null == input || input instanceof Long) {
+				return (Long) input;
+			}
+			return NumberUtils.parseNumber(trimmed(input), Long.class);
+		}
+	}
+
+	private static class DoubleConverter implements Function<Object, Double> {
+		@Override
+		public Double apply(final Object input) {
+			if (null == input || input instanceof Double) {
+				return (Double) input;
+			}
+			return NumberUtils.parseNumber(trimmed(input), Double.class);
+		}
+	}
+
+	/**
+	 * Accepts the same values as Spring's CustomBooleanEditor, i.e. true, on, yes and 1 or false, off, no and 0 ignoring case
+	 */
+	private static class BooleanConverter implements Function<Object, Boolean> {
+		@Override
+		public Boolean apply(final Object input) {
+			if (null == input || input instanceof Boolean) {
+				return (Boolean) input;
+			}
+			final String value = trimmed(input);
+			if ("true".equalsIgnoreCase(value) || "on".equalsIgnoreCase(value) || "yes".equalsIgnoreCase(value) || "1".equals(value)) {
+				return Boolean.TRUE;
+			}
+			if ("false".equalsIgnoreCase(value) || "off".equalsIgnoreCase(value) || "no".equalsIgnoreCase(value) || "0".equals(value)) {
+				return Boolean.FALSE;
+			}
+			throw new IllegalArgumentException(String.format("Invalid boolean value [%s]", value));
 		}
 	}
 
@@ -16,4 +16,11 @@ public interface PropertyConversionService {
 	 * @return the potentially converted field
 	 */
 	Object convertPropertyForField(final Field field, final Object property);
+
+	/**
+	 * @param field the destination field properties are to be set on
+	 * @return a thread safe converter for the given field, reusable for every conversion of the field. Converts to the type argument of fields holding a
+	 *         {@link com.morgan.design.properties.ReloadableValue}.
+	 */
+	PropertyConverter resolveConverter(final Field field);
 }
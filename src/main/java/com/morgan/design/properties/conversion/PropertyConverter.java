@@ -0,0 +1,16 @@
+package com.morgan.design.properties.conversion;
+
+/**
+ * Converts property values for a single destination field, resolved once through {@link PropertyConversionService#resolveConverter(java.lang.reflect.Field)}
+ * and reused for every conversion. Implementations must be thread safe.
+ * 
+ * @author James Morgan
+ */
+public interface PropertyConverter {
+
+	/**
+	 * @param property the property to be converted
+	 * @return the potentially converted property
+	 */
+	Object convert(final Object property);
+}
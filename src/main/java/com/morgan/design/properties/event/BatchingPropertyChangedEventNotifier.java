@@ -0,0 +1,15 @@
+package com.morgan.design.properties.event;
+
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
+
+/**
+ * {@link PropertyChangedEventNotifier} able to post every change of a reload as a single {@link PropertiesChangedBatch}. Changes are posted to notifiers not
+ * implementing this interface as one {@link com.morgan.design.properties.bean.PropertyModifiedEvent} per changed property.
+ * 
+ * @author James Morgan
+ */
+public interface BatchingPropertyChangedEventNotifier extends PropertyChangedEventNotifier {
+
+	void post(PropertiesChangedBatch propertiesChangedBatch);
+
+}
@@ -0,0 +1,384 @@
+package com.morgan.design.properties.event;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
+import com.morgan.design.properties.bean.PropertyModifiedEvent;
+import com.morgan.design.properties.internal.ReloadablePropertyPostProcessor;
+
+/**
+ * Asynchronous {@link PropertyChangedEventNotifier} posting events to a delegate notifier on the given {@link Executor}, the thread detecting a change only
+ * enqueues the change rather than updating every subscribed bean.
+ * <p>
+ * Properties are striped across a fixed number of lanes by name, each lane delivers its events in order and one at a time so changes of the same property are
+ * never reordered. A {@link PropertiesChangedBatch} is split into one batch per lane, delegates which are not a {@link BatchingPropertyChangedEventNotifier}
+ * receive the changes of each batch one at a time. Each lane queues at most <code>queueCapacity</code> events, posting to a
+ * full lane blocks until the lane drains.
+ * <p>
+ * A conflating notifier keys the pending changes of each lane by property name. A change of a property which is still pending replaces the pending change,
+ * keeping its old value and taking the new value and batch version of the later change, so a property rewritten several times before it is dispatched is
+ * applied once with its latest value. A pending change reverted to its old value is dropped. Pending changes are bounded by the number of distinct
+ * properties, only a change to a property not already pending blocks on a full lane. Pending changes are dispatched in batches of the changes taken from a
+ * lane at once, changes posted individually are dispatched individually.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public class ExecutorPropertyChangedEventNotifier implements BatchingPropertyChangedEventNotifier {
+
+	protected static Logger log = LoggerFactory.getLogger(ExecutorPropertyChangedEventNotifier.class);
+
+	public static final int DEFAULT_LANES = 16;
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	// events delivered per task before a lane yields its thread to other lanes
+	private static final int MAX_EVENTS_PER_RUN = 64;
+
+	// version of a pending change posted individually rather than as part of a batch
+	private static final long NOT_BATCHED = -1;
+
+	private final PropertyChangedEventNotifier delegate;
+	private final Executor executor;
+	private final Lane[] lanes;
+	private final boolean conflating;
+	private final AtomicLong conflatedChanges = new AtomicLong();
+
+	public ExecutorPropertyChangedEventNotifier(final PropertyChangedEventNotifier delegate, final Executor executor) {
+		this(delegate, executor, DEFAULT_LANES, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public ExecutorPropertyChangedEventNotifier(final PropertyChangedEventNotifier delegate, final Executor executor, final int lanes, final int queueCapacity) {
+		this(delegate, executor, lanes, queueCapacity, false);
+	}
+
+	/**
+	 * @param conflating true to replace pending changes of a property with later changes rather than queue every change
+	 */
+	public ExecutorPropertyChangedEventNotifier(final PropertyChangedEventNotifier delegate, final Executor executor, final int lanes,
+			final int queueCapacity, final boolean conflating) {
+		if (lanes < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("At least one lane with a capacity of at least one event is required");
+		}
+		this.delegate = delegate;
+		this.executor = executor;
+		this.conflating = conflating;
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane(queueCapacity);
+		}
+	}
+
+	/**
+	 * @return an executor starting a virtual thread per task when running on Java 21 or later, otherwise a cached pool of daemon threads
+	 */
+	public static ExecutorService virtualThreadExecutor() {
+		try {
+			final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (final NoSuchMethodException e) {
+			log.info("Virtual threads not supported by this JVM, dispatching property changes on platform threads");
+		}
+		catch (final ReflectiveOperationException e) {
+			log.warn("Unable to create virtual thread executor, dispatching property changes on platform threads", e);
+		}
+		return Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+			.setNameFormat("properties-notifier-%d")
+			.build());
+	}
+
+	private void postBatch(final PropertiesChangedBatch batch) {
+		if (this.delegate instanceof BatchingPropertyChangedEventNotifier) {
+			((BatchingPropertyChangedEventNotifier) this.delegate).post(batch);
+		}
+		else {
+			for (final PropertyModifiedEvent change : batch.getChanges()) {
+				this.delegate.post(change);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of pending changes replaced by, or reverted by, a later change of the same property
+	 */
+	public long getConflatedChangeCount() {
+		return this.conflatedChanges.get();
+	}
+
+	@Override
+	public void post(final PropertyModifiedEvent propertyChangedEvent) {
+		final Lane lane = laneOf(propertyChangedEvent.getPropertyName());
+		if (this.conflating) {
+			lane.conflate(new PendingChange(propertyChangedEvent, NOT_BATCHED));
+		}
+		else {
+			lane.enqueue(propertyChangedEvent);
+		}
+	}
+
+	@Override
+	public void post(final PropertiesChangedBatch propertiesChangedBatch) {
+		if (this.conflating) {
+			for (final PropertyModifiedEvent change : propertiesChangedBatch.getChanges()) {
+				laneOf(change.getPropertyName()).conflate(new PendingChange(change, propertiesChangedBatch.getVersion()));
+			}
+			return;
+		}
+		final Map<Lane, List<PropertyModifiedEvent>> changesByLane = Maps.newLinkedHashMap();
+		for (final PropertyModifiedEvent change : propertiesChangedBatch.getChanges()) {
+			final Lane lane = laneOf(change.getPropertyName());
+			List<PropertyModifiedEvent> changes = changesByLane.get(lane);
+			if (null == changes) {
+				changes = Lists.newArrayList();
+				changesByLane.put(lane, changes);
+			}
+			changes.add(change);
+		}
+		for (final Map.Entry<Lane, List<PropertyModifiedEvent>> laneChanges : changesByLane.entrySet()) {
+			laneChanges.getKey()
+				.enqueue(new PropertiesChangedBatch(propertiesChangedBatch.getVersion(), laneChanges.getValue()));
+		}
+	}
+
+	@Override
+	public void unregister(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+		this.delegate.unregister(reloadablePropertyProcessor);
+	}
+
+	@Override
+	public void register(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+		this.delegate.register(reloadablePropertyProcessor);
+	}
+
+	private Lane laneOf(final String propertyName) {
+		// spread the hash so names differing only in their high bits do not share a lane
+		final int hash = propertyName.hashCode();
+		return this.lanes[((hash ^ hash >>> 16) & Integer.MAX_VALUE) % this.lanes.length];
+	}
+
+	private void dispatch(final Object event) {
+		try {
+			if (event instanceof PropertiesChangedBatch) {
+				postBatch((PropertiesChangedBatch) event);
+			}
+			else {
+				this.delegate.post((PropertyModifiedEvent) event);
+			}
+		}
+		catch (final RuntimeException e) {
+			log.error("Failed to dispatch property change [{}]", event, e);
+		}
+	}
+
+	/**
+	 * Bounded queue of events delivered serially, at most one task per lane is submitted to the executor at any time. Events are keyed by property name when
+	 * conflating, otherwise each event is queued under a key of its own.
+	 */
+	private class Lane implements Runnable {
+
+		private final Map<Object, Object> pending = new LinkedHashMap<Object, Object>();
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition notFull = this.lock.newCondition();
+		private final int queueCapacity;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		Lane(final int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		void enqueue(final Object event) {
+			this.lock.lock();
+			try {
+				if (!awaitCapacity(event)) {
+					return;
+				}
+				this.pending.put(new Object(), event);
+			}
+			finally {
+				this.lock.unlock();
+			}
+			schedule();
+		}
+
+		void conflate(final PendingChange change) {
+			final String propertyName = change.change.getPropertyName();
+			this.lock.lock();
+			try {
+				final PendingChange previous = (PendingChange) this.pending.get(propertyName);
+				if (null != previous) {
+					ExecutorPropertyChangedEventNotifier.this.conflatedChanges.incrementAndGet();
+					if (Objects.equal(previous.change.getOldValue(), change.change.getNewValue())) {
+						this.pending.remove(propertyName);
+						this.notFull.signal();
+					}
+					else {
+						this.pending.put(propertyName, previous.replacedBy(change));
+					}
+					return;
+				}
+				if (!awaitCapacity(change.change)) {
+					return;
+				}
+				this.pending.put(propertyName, change);
+			}
+			finally {
+				this.lock.unlock();
+			}
+			schedule();
+		}
+
+		// called holding the lock, false if interrupted whilst waiting
+		private boolean awaitCapacity(final Object event) {
+			try {
+				while (this.pending.size() >= this.queueCapacity) {
+					this.notFull.await();
+				}
+				return true;
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread()
+					.interrupt();
+				log.warn("Interrupted whilst waiting to dispatch property change [{}], change not dispatched", event);
+				return false;
+			}
+		}
+
+		private Object poll() {
+			final List<Object> events = drain(1);
+			return events.isEmpty()
+					? null
+					: events.get(0);
+		}
+
+		// takes up to the given number of pending events, pending changes of a conflating lane taken together are dispatched as one batch
+		private List<Object> drain(final int maxEvents) {
+			final List<Object> events = Lists.newArrayList();
+			this.lock.lock();
+			try {
+				List<PropertyModifiedEvent> batch = null;
+				long version = NOT_BATCHED;
+				final Iterator<Object> iterator = this.pending.values()
+					.iterator();
+				for (int i = 0; i < maxEvents && iterator.hasNext(); i++) {
+					final Object event = iterator.next();
+					iterator.remove();
+					if (!(event instanceof PendingChange)) {
+						events.add(event);
+					}
+					else if (((PendingChange) event).version == NOT_BATCHED) {
+						events.add(((PendingChange) event).change);
+					}
+					else {
+						if (null == batch) {
+							batch = Lists.newArrayList();
+						}
+						batch.add(((PendingChange) event).change);
+						version = Math.max(version, ((PendingChange) event).version);
+					}
+				}
+				if (null != batch) {
+					events.add(new PropertiesChangedBatch(version, batch));
+				}
+				this.notFull.signalAll();
+			}
+			finally {
+				this.lock.unlock();
+			}
+			return events;
+		}
+
+		private boolean isEmpty() {
+			this.lock.lock();
+			try {
+				return this.pending.isEmpty();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private int size() {
+			this.lock.lock();
+			try {
+				return this.pending.size();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					ExecutorPropertyChangedEventNotifier.this.executor.execute(this);
+				}
+				catch (final RejectedExecutionException e) {
+					this.scheduled.set(false);
+					log.error("Executor rejected property change dispatch, {} changes pending", size(), e);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (ExecutorPropertyChangedEventNotifier.this.conflating) {
+					for (final Object event : drain(MAX_EVENTS_PER_RUN)) {
+						dispatch(event);
+					}
+				}
+				else {
+					Object event;
+					for (int i = 0; i < MAX_EVENTS_PER_RUN && (event = poll()) != null; i++) {
+						dispatch(event);
+					}
+				}
+			}
+			finally {
+				this.scheduled.set(false);
+				// an event enqueued after the last drain may have seen the lane as still scheduled
+				if (!isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Change of a single property waiting to be dispatched by a conflating lane, with the version of the batch it was posted in
+	 */
+	private static class PendingChange {
+
+		private final PropertyModifiedEvent change;
+		private final long version;
+
+		PendingChange(final PropertyModifiedEvent change, final long version) {
+			this.change = change;
+			this.version = version;
+		}
+
+		PendingChange replacedBy(final PendingChange later) {
+			return new PendingChange(new PropertyModifiedEvent(this.change.getPropertyName(), this.change.getOldValue(), later.change.getNewValue()),
+					later.version);
+		}
+	}
+}
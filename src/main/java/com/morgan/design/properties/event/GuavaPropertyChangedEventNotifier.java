@@ -5,11 +5,12 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import com.google.common.eventbus.EventBus;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
 import com.morgan.design.properties.bean.PropertyModifiedEvent;
 import com.morgan.design.properties.internal.ReloadablePropertyPostProcessor;
 
 @Component
-public class GuavaPropertyChangedEventNotifier implements PropertyChangedEventNotifier {
+public class GuavaPropertyChangedEventNotifier implements BatchingPropertyChangedEventNotifier {
 
 	private final EventBus eventBus;
 
@@ -23,6 +24,11 @@ public class GuavaPropertyChangedEventNotifier implements PropertyChangedEventNo
 		this.eventBus.post(propertyChangedEvent);
 	}
 
+	@Override
+	public void post(final PropertiesChangedBatch propertiesChangedBatch) {
+		this.eventBus.post(propertiesChangedBatch);
+	}
+
 	@Override
 	public void unregister(final ReloadablePropertyPostProcessor ReloadablePropertyPostProcessor) {
 		this.eventBus.unregister(ReloadablePropertyPostProcessor);
@@ -0,0 +1,177 @@
+package com.morgan.design.properties.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import com.morgan.design.properties.bean.BeanPropertyHolder;
+import com.morgan.design.properties.bean.BeanPropertyHolder.BeanReference;
+import com.morgan.design.properties.bean.FieldWriter;
+import com.morgan.design.properties.conversion.PropertyConverter;
+
+/**
+ * Thread safe index of the {@link BeanPropertyHolder}s subscribed to each property. The subscribers of a property are held in a copy-on-write array which is
+ * replaced atomically on every subscription, readers never take a lock and always see a complete array even while beans are being created concurrently.
+ * <p>
+ * Subscribed beans are weakly referenced, subscriptions of garbage collected beans are expunged as their references are enqueued so the index only grows
+ * with the number of live beans.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public class BeanPropertySubscriptions {
+
+	private final ConcurrentMap<String, BeanPropertyHolder[]> subscriptions = Maps.newConcurrentMap();
+	private final ReferenceQueue<Object> collectedBeans = new ReferenceQueue<Object>();
+
+	/**
+	 * @param propertyName the property to subscribe to
+	 * @param bean the bean to update when the property changes
+	 * @param field the field of the bean to update
+	 * @param fieldWriter the writer used to update the field
+	 * @param converter the converter of property values for the field
+	 * @return the subscription created
+	 */
+	public BeanPropertyHolder subscribe(final String propertyName, final Object bean, final Field field, final FieldWriter fieldWriter,
+			final PropertyConverter converter) {
+		expungeCollectedBeans();
+		final BeanPropertyHolder holder = new BeanPropertyHolder(propertyName, bean, field, fieldWriter, converter, this.collectedBeans);
+		subscribe(holder);
+		return holder;
+	}
+
+	private void subscribe(final BeanPropertyHolder holder) {
+		final String propertyName = holder.getPropertyName();
+		while (true) {
+			final BeanPropertyHolder[] current = this.subscriptions.get(propertyName);
+			if (null == current) {
+				if (null == this.subscriptions.putIfAbsent(propertyName, new BeanPropertyHolder[] { holder })) {
+					return;
+				}
+			}
+			else {
+				if (indexOf(current, holder) >= 0) {
+					return;
+				}
+				final BeanPropertyHolder[] updated = Arrays.copyOf(current, current.length + 1);
+				updated[current.length] = holder;
+				if (this.subscriptions.replace(propertyName, current, updated)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all subscriptions of the given bean to the given property
+	 * 
+	 * @param propertyName the property subscribed to
+	 * @param bean the bean to stop updating
+	 */
+	public void unsubscribe(final String propertyName, final Object bean) {
+		for (final BeanPropertyHolder holder : getSubscribers(propertyName)) {
+			if (holder.getBean() == bean) {
+				unsubscribe(holder);
+			}
+		}
+	}
+
+	/**
+	 * @param holder the subscription to remove
+	 */
+	public void unsubscribe(final BeanPropertyHolder holder) {
+		final String propertyName = holder.getPropertyName();
+		while (true) {
+			final BeanPropertyHolder[] current = this.subscriptions.get(propertyName);
+			final int index = null == current
+					? -1
+					: indexOf(current, holder);
+			if (index < 0) {
+				return;
+			}
+			if (current.length == 1) {
+				if (this.subscriptions.remove(propertyName, current)) {
+					return;
+				}
+			}
+			else {
+				final BeanPropertyHolder[] updated = new BeanPropertyHolder[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, index);
+				System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+				if (this.subscriptions.replace(propertyName, current, updated)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param propertyName the property subscribed to
+	 * @return an unmodifiable snapshot of the current subscribers, empty if the property has no subscribers
+	 */
+	public List<BeanPropertyHolder> getSubscribers(final String propertyName) {
+		expungeCollectedBeans();
+		final BeanPropertyHolder[] current = this.subscriptions.get(propertyName);
+		if (null == current) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(Arrays.asList(current));
+	}
+
+	/**
+	 * @param propertyName the property subscribed to
+	 * @return the number of bean fields currently subscribed to the given property
+	 */
+	public int getSubscriberCount(final String propertyName) {
+		expungeCollectedBeans();
+		final BeanPropertyHolder[] current = this.subscriptions.get(propertyName);
+		return null == current
+				? 0
+				: current.length;
+	}
+
+	/**
+	 * @return the number of bean fields currently subscribed to each property
+	 */
+	public Map<String, Integer> getSubscriberCounts() {
+		expungeCollectedBeans();
+		final Map<String, Integer> counts = Maps.newTreeMap();
+		for (final Map.Entry<String, BeanPropertyHolder[]> subscription : this.subscriptions.entrySet()) {
+			counts.put(subscription.getKey(), subscription.getValue().length);
+		}
+		return counts;
+	}
+
+	/**
+	 * Removes the subscriptions of all beans garbage collected since the last call
+	 */
+	public void expungeCollectedBeans() {
+		Reference<?> reference;
+		while (null != (reference = this.collectedBeans.poll())) {
+			unsubscribe(((BeanReference) reference).getHolder());
+		}
+	}
+
+	private static int indexOf(final BeanPropertyHolder[] holders, final BeanPropertyHolder holder) {
+		for (int i = 0; i < holders.length; i++) {
+			if (holders[i].equals(holder)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("subscriptions", this.subscriptions.keySet())
+			.toString();
+	}
+}
@@ -0,0 +1,193 @@
+package com.morgan.design.properties.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+
+/**
+ * {@link EventPublisher} coalescing bursts of change events for the same resource. A change is only passed on once no further events have been received for
+ * the resource within its delay and the size and last modified time of the file have not changed during the delay, so a burst of events caused by a single
+ * save results in one reload of the fully written file.
+ * 
+ * @author James Morgan
+ */
+public class DebouncingEventPublisher implements EventPublisher {
+
+	protected static Logger log = LoggerFactory.getLogger(DebouncingEventPublisher.class);
+
+	private final EventPublisher eventPublisher;
+	private final long delayMillis;
+	private final Map<String, Long> resourceDelayMillis;
+
+	private final ConcurrentMap<Resource, PendingChange> pendingChanges = Maps.newConcurrentMap();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+		.setNameFormat("properties-debouncer-%d")
+		.build());
+
+	/**
+	 * @param eventPublisher the publisher to pass coalesced changes on to
+	 * @param delayMillis the quiet period required before a change is passed on
+	 * @param resourceDelayMillis quiet periods overriding the default delay keyed by resource file name, may be empty
+	 */
+	public DebouncingEventPublisher(final EventPublisher eventPublisher, final long delayMillis, final Map<String, Long> resourceDelayMillis) {
+		this.eventPublisher = eventPublisher;
+		this.delayMillis = delayMillis;
+		this.resourceDelayMillis = ImmutableMap.copyOf(resourceDelayMillis);
+	}
+
+	@Override
+	public void onResourceChanged(final Resource resource) {
+		final long delay = delayFor(resource);
+		if (delay <= 0) {
+			this.eventPublisher.onResourceChanged(resource);
+			return;
+		}
+
+		while (true) {
+			final PendingChange pendingChange = this.pendingChanges.get(resource);
+			if (null != pendingChange && pendingChange.extend()) {
+				log.debug("Coalescing change event for resource [{}]", resource);
+				return;
+			}
+			final PendingChange newChange = new PendingChange(resource, delay);
+			final boolean added = null == pendingChange
+					? null == this.pendingChanges.putIfAbsent(resource, newChange)
+					: this.pendingChanges.replace(resource, pendingChange, newChange);
+			if (added) {
+				newChange.schedule(delay);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stops any pending changes from being passed on
+	 */
+	public void stop() {
+		this.scheduler.shutdownNow();
+	}
+
+	private long delayFor(final Resource resource) {
+		final Long delay = this.resourceDelayMillis.get(resource.getFilename());
+		return null == delay
+				? this.delayMillis
+				: delay;
+	}
+
+	private static FileState fileState(final Resource resource) {
+		try {
+			final File file = resource.getFile();
+			return new FileState(file.length(), file.lastModified());
+		}
+		catch (final IOException e) {
+			// not backed by a file, nothing to compare
+			return null;
+		}
+	}
+
+	/**
+	 * Change waiting for its resource to become quiet
+	 */
+	private class PendingChange implements Runnable {
+
+		private final Resource resource;
+		private final long delayMillis;
+
+		private long lastEventMillis;
+		private FileState fileState;
+		private boolean published;
+
+		public PendingChange(final Resource resource, final long delayMillis) {
+			this.resource = resource;
+			this.delayMillis = delayMillis;
+			this.lastEventMillis = System.currentTimeMillis();
+			this.fileState = fileState(resource);
+		}
+
+		/**
+		 * @return false if the change has already been passed on and a new change needs scheduling
+		 */
+		public synchronized boolean extend() {
+			if (this.published) {
+				return false;
+			}
+			this.lastEventMillis = System.currentTimeMillis();
+			this.fileState = fileState(this.resource);
+			return true;
+		}
+
+		public void schedule(final long delay) {
+			DebouncingEventPublisher.this.scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				final long quietMillis = System.currentTimeMillis() - this.lastEventMillis;
+				if (quietMillis < this.delayMillis) {
+					schedule(this.delayMillis - quietMillis);
+					return;
+				}
+
+				final FileState currentState = fileState(this.resource);
+				if (!Objects.equal(this.fileState, currentState)) {
+					log.debug("Resource [{}] still being written, delaying reload", this.resource);
+					this.fileState = currentState;
+					schedule(this.delayMillis);
+					return;
+				}
+				this.published = true;
+			}
+
+			DebouncingEventPublisher.this.pendingChanges.remove(this.resource, this);
+			try {
+				DebouncingEventPublisher.this.eventPublisher.onResourceChanged(this.resource);
+			}
+			catch (final RuntimeException e) {
+				log.error("Failed to publish change of resource [{}]", this.resource, e);
+			}
+		}
+	}
+
+	/**
+	 * Size and last modified time of a file
+	 */
+	private static class FileState {
+
+		private final long size;
+		private final long lastModified;
+
+		public FileState(final long size, final long lastModified) {
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.size, this.lastModified);
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			if (object instanceof FileState) {
+				final FileState that = (FileState) object;
+				return this.size == that.size && this.lastModified == that.lastModified;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import com.morgan.design.properties.bean.ReloadableInjector;
+
+/**
+ * Locates the {@link ReloadableInjector}s generated at compile time by the <code>reloadable-properties-processor</code> module. Each jar built with the
+ * processor carries an index at {@value #INDEX_LOCATION} mapping the binary name of every processed class to its injector, the indexes visible to a class
+ * loader are read once and cached until the class loader is collected. Classes which are not indexed have no generated injector and are scanned
+ * reflectively.
+ * 
+ * @author James Morgan
+ */
+public final class GeneratedInjectors {
+
+	protected static Logger log = LoggerFactory.getLogger(GeneratedInjectors.class);
+
+	/**
+	 * Location of the index written by the annotation processor, in {@link Properties} format
+	 */
+	public static final String INDEX_LOCATION = "META-INF/reloadable-properties/injectors.properties";
+
+	private static final LoadingCache<ClassLoader, Map<String, String>> INDEXES = CacheBuilder.newBuilder()
+		.weakKeys()
+		.build(new CacheLoader<ClassLoader, Map<String, String>>() {
+			@Override
+			public Map<String, String> load(final ClassLoader classLoader) {
+				return readIndexes(classLoader);
+			}
+		});
+
+	private GeneratedInjectors() {
+		// static lookup only
+	}
+
+	/**
+	 * @param type the class to look up
+	 * @return the generated injector of the given class, or null if the class was not processed or its injector could not be instantiated
+	 */
+	public static ReloadableInjector forClass(final Class<?> type) {
+		return forClass(type, type.getClassLoader());
+	}
+
+	/**
+	 * @param type the class to look up
+	 * @param classLoader the class loader whose indexes are read and which loads the injector
+	 * @return the generated injector of the given class, or null if the class is not indexed or its injector could not be instantiated
+	 */
+	static ReloadableInjector forClass(final Class<?> type, final ClassLoader classLoader) {
+		if (null == classLoader) {
+			return null;
+		}
+		final String injectorName = INDEXES.getUnchecked(classLoader)
+			.get(type.getName());
+		if (null == injectorName) {
+			return null;
+		}
+		try {
+			final Class<?> injectorType = Class.forName(injectorName, true, classLoader);
+			return (ReloadableInjector) injectorType.newInstance();
+		}
+		catch (final ReflectiveOperationException | LinkageError | ClassCastException e) {
+			log.warn("Unable to instantiate generated injector [{}] of class [{}], falling back to reflection", injectorName, type.getName(), e);
+			return null;
+		}
+	}
+
+	private static Map<String, String> readIndexes(final ClassLoader classLoader) {
+		final Map<String, String> injectors = Maps.newHashMap();
+		try {
+			final Enumeration<URL> indexes = classLoader.getResources(INDEX_LOCATION);
+			while (indexes.hasMoreElements()) {
+				final URL index = indexes.nextElement();
+				final Properties entries = new Properties();
+				final InputStream inputStream = index.openStream();
+				try {
+					entries.load(inputStream);
+				}
+				finally {
+					Closeables.closeQuietly(inputStream);
+				}
+				for (final String className : entries.stringPropertyNames()) {
+					injectors.put(className, entries.getProperty(className));
+				}
+				log.debug("Read {} generated injectors from [{}]", entries.size(), index);
+			}
+		}
+		catch (final IOException e) {
+			log.warn("Unable to read generated injector index, falling back to reflection", e);
+		}
+		return ImmutableMap.copyOf(injectors);
+	}
+}
@@ -0,0 +1,230 @@
+package com.morgan.design.properties.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.util.ReflectionUtils;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.bean.FieldWriter;
+import com.morgan.design.properties.bean.FieldWriters;
+import com.morgan.design.properties.bean.InjectorBinding;
+import com.morgan.design.properties.bean.ReloadableInjector;
+import com.morgan.design.properties.conversion.PropertyConversionService;
+import com.morgan.design.properties.conversion.PropertyConverter;
+
+/**
+ * Describes how {@link ReloadableProperty} values are injected into instances of a single class. A plan is computed once per class by scanning the class
+ * hierarchy and is then reused for every instance of that class, including classes which have nothing to inject. Each injection point carries the
+ * {@link FieldWriter} and {@link PropertyConverter} bound to its field, neither is looked up again when the field is reloaded. Final fields are only accepted
+ * if they hold a {@link com.morgan.design.properties.ReloadableValue}.
+ * <p>
+ * Classes with a {@link ReloadableInjector} generated at compile time are not scanned, the plan is built from the precomputed bindings of the injector and
+ * its fields are written directly.
+ * </p>
+ *
+ * @author James Morgan
+ */
+public class InjectionPlan {
+
+	private static final InjectionPlan NOTHING_TO_INJECT = new InjectionPlan(Collections.<InjectionPoint> emptyList(), Collections.<Field> emptyList(), null);
+
+	private final List<InjectionPoint> injectionPoints;
+	private final List<Field> plainFields;
+	private final String validationFailure;
+
+	private InjectionPlan(final List<InjectionPoint> injectionPoints, final List<Field> plainFields, final String validationFailure) {
+		this.injectionPoints = injectionPoints;
+		this.plainFields = plainFields;
+		this.validationFailure = validationFailure;
+	}
+
+	/**
+	 * Scans the given class and its super classes for fields annotated with {@link ReloadableProperty}, without checking how fields are published
+	 *
+	 * @param type the class to build a plan for
+	 * @param conversionService resolves the converter of each annotated field
+	 * @return the plan for the given class, never null
+	 */
+	public static InjectionPlan forClass(final Class<?> type, final PropertyConversionService conversionService) {
+		return forClass(type, conversionService, PublicationMode.PLAIN);
+	}
+
+	/**
+	 * Scans the given class and its super classes for fields annotated with {@link ReloadableProperty}, or uses the bindings of the generated injector of
+	 * the class if there is one
+	 *
+	 * @param type the class to build a plan for
+	 * @param conversionService resolves the converter of each annotated field
+	 * @param publicationMode {@link PublicationMode#STRICT} to fail validation of classes with plain, non volatile, fields
+	 * @return the plan for the given class, never null
+	 */
+	public static InjectionPlan forClass(final Class<?> type, final PropertyConversionService conversionService, final PublicationMode publicationMode) {
+		final ReloadableInjector injector = GeneratedInjectors.forClass(type);
+		if (null != injector) {
+			return forInjector(type, injector, conversionService, publicationMode);
+		}
+
+		final Builder builder = new Builder(type, conversionService, publicationMode);
+		ReflectionUtils.doWithFields(type, new ReflectionUtils.FieldCallback() {
+			@Override
+			public void doWith(final Field field) {
+				final ReloadableProperty annotation = field.getAnnotation(ReloadableProperty.class);
+				if (null != annotation) {
+					builder.add(field, annotation.value(), null);
+				}
+			}
+		});
+		return builder.build();
+	}
+
+	/**
+	 * Builds the plan of the given class from the precomputed bindings of its generated injector
+	 */
+	static InjectionPlan forInjector(final Class<?> type, final ReloadableInjector injector, final PropertyConversionService conversionService,
+			final PublicationMode publicationMode) {
+		final Builder builder = new Builder(type, conversionService, publicationMode);
+		for (final InjectorBinding binding : injector.getBindings()) {
+			final Field field;
+			try {
+				field = binding.getDeclaringClass()
+					.getDeclaredField(binding.getFieldName());
+			}
+			catch (final NoSuchFieldException e) {
+				throw new BeanInitializationException(String.format("Generated injector [%s] of class [%s] is out of date, field [%s] not found", injector
+					.getClass()
+					.getName(), type.getCanonicalName(), binding.getFieldName()), e);
+			}
+			builder.add(field, binding.getPropertyName(), binding.getFieldWriter());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return true if the class has no fields annotated with {@link ReloadableProperty}
+	 */
+	public boolean isEmpty() {
+		return this.injectionPoints.isEmpty();
+	}
+
+	public List<InjectionPoint> getInjectionPoints() {
+		return this.injectionPoints;
+	}
+
+	/**
+	 * @return the annotated fields which are neither volatile nor hold a handle, whose reloaded values may not be seen by other threads
+	 */
+	public List<Field> getPlainFields() {
+		return this.plainFields;
+	}
+
+	/**
+	 * @throws BeanInitializationException if any annotated field of the class cannot be injected
+	 */
+	public void validate() {
+		if (null != this.validationFailure) {
+			throw new BeanInitializationException(this.validationFailure);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("injectionPoints", this.injectionPoints)
+			.add("validationFailure", this.validationFailure)
+			.toString();
+	}
+
+	private static class Builder {
+
+		private final List<InjectionPoint> injectionPoints = Lists.newArrayList();
+		private final List<Field> plainFields = Lists.newArrayList();
+		private final StringBuilder validationFailure = new StringBuilder();
+
+		private final Class<?> type;
+		private final PropertyConversionService conversionService;
+		private final PublicationMode publicationMode;
+
+		Builder(final Class<?> type, final PropertyConversionService conversionService, final PublicationMode publicationMode) {
+			this.type = type;
+			this.conversionService = conversionService;
+			this.publicationMode = publicationMode;
+		}
+
+		void add(final Field field, final String propertyName, final FieldWriter generatedFieldWriter) {
+			if (Modifier.isFinal(field.getModifiers()) && !FieldWriters.isReloadableHandle(field.getType()) && this.validationFailure.length() == 0) {
+				this.validationFailure.append(String.format("Unable to set field [%s] of class [%s] as is declared final", field.getName(),
+						this.type.getCanonicalName()));
+			}
+			if (!Modifier.isVolatile(field.getModifiers()) && !FieldWriters.isReloadableHandle(field.getType())) {
+				this.plainFields.add(field);
+				if (this.publicationMode == PublicationMode.STRICT && this.validationFailure.length() == 0) {
+					this.validationFailure.append(String.format("Unable to safely publish field [%s] of class [%s], declare the field volatile or "
+						+ "use a ReloadableValue", field.getName(), this.type.getCanonicalName()));
+				}
+			}
+			ReflectionUtils.makeAccessible(field);
+			final FieldWriter fieldWriter = null == generatedFieldWriter
+					? FieldWriters.forField(field)
+					: generatedFieldWriter;
+			this.injectionPoints.add(new InjectionPoint(field, propertyName, fieldWriter, this.conversionService.resolveConverter(field)));
+		}
+
+		InjectionPlan build() {
+			if (this.injectionPoints.isEmpty()) {
+				return NOTHING_TO_INJECT;
+			}
+			return new InjectionPlan(ImmutableList.copyOf(this.injectionPoints), ImmutableList.copyOf(this.plainFields), this.validationFailure.length() == 0
+					? null
+					: this.validationFailure.toString());
+		}
+	}
+
+	/**
+	 * A single annotated field and the property key it is bound to
+	 */
+	public static class InjectionPoint {
+
+		private final Field field;
+		private final String propertyName;
+		private final FieldWriter fieldWriter;
+		private final PropertyConverter converter;
+
+		public InjectionPoint(final Field field, final String propertyName, final FieldWriter fieldWriter, final PropertyConverter converter) {
+			this.field = field;
+			this.propertyName = propertyName;
+			this.fieldWriter = fieldWriter;
+			this.converter = converter;
+		}
+
+		public Field getField() {
+			return this.field;
+		}
+
+		public String getPropertyName() {
+			return this.propertyName;
+		}
+
+		public FieldWriter getFieldWriter() {
+			return this.fieldWriter;
+		}
+
+		public PropertyConverter getConverter() {
+			return this.converter;
+		}
+
+		@Override
+		public String toString() {
+			return Objects.toStringHelper(this)
+				.add("field", this.field)
+				.add("propertyName", this.propertyName)
+				.toString();
+		}
+	}
+}
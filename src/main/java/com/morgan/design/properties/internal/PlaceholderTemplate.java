@@ -0,0 +1,117 @@
+package com.morgan.design.properties.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+
+/**
+ * A property value containing <code>${...}</code> placeholders compiled into alternating literal and reference segments, the value is scanned once on
+ * compilation and each resolution is a single concatenation of the literals and the resolved references.
+ * 
+ * <pre>
+ * Hello, ${user.name}! -> ["Hello, ", "!"] + [user.name]
+ * </pre>
+ * 
+ * @author James Morgan
+ */
+public class PlaceholderTemplate {
+
+	private static final String PREFIX = "${";
+	private static final char SUFFIX = '}';
+
+	/**
+	 * Resolves the referenced properties of a template
+	 */
+	public interface ReferenceResolver {
+
+		/**
+		 * @param propertyName the referenced property
+		 * @return the resolved value of the property, or null if not defined
+		 */
+		Object resolve(String propertyName);
+	}
+
+	// one more literal than references, literal[i] precedes references[i]
+	private final String[] literals;
+	private final String[] references;
+	private final int literalLength;
+
+	private PlaceholderTemplate(final String[] literals, final String[] references) {
+		this.literals = literals;
+		this.references = references;
+		int literalLength = 0;
+		for (final String literal : literals) {
+			literalLength += literal.length();
+		}
+		this.literalLength = literalLength;
+	}
+
+	/**
+	 * @param value the raw property value
+	 * @return the compiled template, or null if the value contains no placeholders
+	 */
+	public static PlaceholderTemplate compile(final String value) {
+		int start = value.indexOf(PREFIX);
+		if (start < 0) {
+			return null;
+		}
+		final List<String> literals = Lists.newArrayList();
+		final List<String> references = Lists.newArrayList();
+		int from = 0;
+		while (start >= 0) {
+			final int end = value.indexOf(SUFFIX, start + PREFIX.length());
+			if (end < 0) {
+				break;
+			}
+			literals.add(value.substring(from, start));
+			references.add(value.substring(start + PREFIX.length(), end));
+			from = end + 1;
+			start = value.indexOf(PREFIX, from);
+		}
+		if (references.isEmpty()) {
+			return null;
+		}
+		literals.add(value.substring(from));
+		return new PlaceholderTemplate(literals.toArray(new String[literals.size()]), references.toArray(new String[references.size()]));
+	}
+
+	/**
+	 * @return the names of the properties referenced, in order of appearance
+	 */
+	public List<String> getReferences() {
+		return Arrays.asList(this.references);
+	}
+
+	/**
+	 * @param resolver resolves each referenced property, references which cannot be resolved are left as placeholders
+	 * @return the value with every placeholder substituted
+	 */
+	public String render(final ReferenceResolver resolver) {
+		final String[] resolved = new String[this.references.length];
+		int length = this.literalLength;
+		for (int i = 0; i < this.references.length; i++) {
+			final Object value = resolver.resolve(this.references[i]);
+			resolved[i] = null == value
+					? PREFIX + this.references[i] + SUFFIX
+					: value.toString();
+			length += resolved[i].length();
+		}
+		final StringBuilder rendered = new StringBuilder(length);
+		for (int i = 0; i < this.references.length; i++) {
+			rendered.append(this.literals[i])
+				.append(resolved[i]);
+		}
+		return rendered.append(this.literals[this.references.length])
+			.toString();
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("literals", Arrays.toString(this.literals))
+			.add("references", Arrays.toString(this.references))
+			.toString();
+	}
+}
@@ -0,0 +1,207 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+import com.morgan.design.properties.metrics.ReloadMetrics;
+
+/**
+ * <p>
+ * Detects changes to the given resources by polling the size, last modified time and file key of each file, for file systems where a
+ * {@link java.nio.file.WatchService} reports changes late or not at all, e.g. NFS mounts. All files are polled by a single scheduler thread, each file is
+ * read with a single attribute lookup.
+ * </p>
+ * <p>
+ * Each file is polled with its own adaptive interval, a file is polled every <code>minIntervalMillis</code> after it changes and the interval doubles with
+ * every poll finding it unchanged, up to <code>maxIntervalMillis</code>. Files being edited are therefore picked up quickly while idle files cost little.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public class PollingPropertiesWatcher implements Runnable {
+
+	protected static Logger log = LoggerFactory.getLogger(PollingPropertiesWatcher.class);
+
+	private final EventPublisher eventPublisher;
+	private final long minIntervalMillis;
+	private final long maxIntervalMillis;
+	private final ReloadMetrics reloadMetrics;
+
+	// only accessed by the polling thread
+	private final List<PolledFile> polledFiles;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+		.setNameFormat("properties-poller-%d")
+		.build());
+
+	/**
+	 * @param locations the resources to poll, resources not backed by a file are ignored
+	 * @param eventPublisher the publisher to pass changes on to
+	 * @param minIntervalMillis the interval a file is polled at after it changes
+	 * @param maxIntervalMillis the longest interval a file unchanged for some time is polled at
+	 * @param reloadMetrics the metrics to record the liveness of the watcher to
+	 */
+	public PollingPropertiesWatcher(final Resource[] locations, final EventPublisher eventPublisher, final long minIntervalMillis,
+			final long maxIntervalMillis, final ReloadMetrics reloadMetrics) {
+		this.eventPublisher = eventPublisher;
+		this.minIntervalMillis = minIntervalMillis;
+		this.maxIntervalMillis = Math.max(minIntervalMillis, maxIntervalMillis);
+		this.reloadMetrics = reloadMetrics;
+
+		final ImmutableList.Builder<PolledFile> polledFiles = ImmutableList.builder();
+		for (final Resource resource : locations) {
+			try {
+				polledFiles.add(new PolledFile(resource, resource.getFile()
+					.toPath()));
+			}
+			catch (final IOException e) {
+				log.error("Unable to poll resource [{}] which is not a file", resource, e);
+			}
+		}
+		this.polledFiles = polledFiles.build();
+	}
+
+	/**
+	 * Starts polling on the scheduler thread
+	 */
+	public void start() {
+		log.debug("Polling resources {} every {} to {} ms", new Object[] { this.polledFiles, this.minIntervalMillis, this.maxIntervalMillis });
+		this.reloadMetrics.watcherStarted();
+		this.scheduler.scheduleWithFixedDelay(this, this.minIntervalMillis, this.minIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void stop() {
+		log.debug("Stopping polling of resources");
+		this.scheduler.shutdownNow();
+		this.reloadMetrics.watcherStopped(null);
+	}
+
+	@Override
+	public void run() {
+		try {
+			poll(currentTimeMillis());
+		}
+		catch (final RuntimeException e) {
+			// an exception escaping a scheduled task cancels all further polls
+			log.error("Exception thrown when polling resources {}, continuing to poll", this.polledFiles, e);
+		}
+	}
+
+	/**
+	 * Polls every file due to be polled at the given time, publishing the change of each file found modified
+	 * 
+	 * @param now the current time in milliseconds, as given by {@link System#nanoTime()}
+	 */
+	void poll(final long now) {
+		for (final PolledFile polledFile : this.polledFiles) {
+			if (now < polledFile.nextPollMillis) {
+				continue;
+			}
+			if (polledFile.poll()) {
+				polledFile.intervalMillis = this.minIntervalMillis;
+				publishResourceChangedEvent(polledFile.resource);
+			}
+			else {
+				polledFile.intervalMillis = Math.min(polledFile.intervalMillis * 2, this.maxIntervalMillis);
+			}
+			polledFile.nextPollMillis = now + polledFile.intervalMillis;
+		}
+	}
+
+	/**
+	 * @return the interval the given resource is currently polled at, or -1 if the resource is not polled
+	 */
+	long getPollIntervalMillis(final Resource resource) {
+		for (final PolledFile polledFile : this.polledFiles) {
+			if (polledFile.resource.equals(resource)) {
+				return polledFile.intervalMillis;
+			}
+		}
+		return -1;
+	}
+
+	private void publishResourceChangedEvent(final Resource resource) {
+		this.reloadMetrics.watchEventReceived();
+		log.debug("Polled Resource changed, modified file [{}]", resource);
+		try {
+			this.eventPublisher.onResourceChanged(resource);
+		}
+		catch (final RuntimeException e) {
+			log.error("Failed to publish change of resource [{}], continuing to poll", resource, e);
+		}
+	}
+
+	private static long currentTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+	}
+
+	/**
+	 * A polled file and its state when last polled
+	 */
+	private class PolledFile {
+
+		final Resource resource;
+		final Path path;
+
+		long size;
+		long lastModified;
+		Object fileKey;
+
+		long intervalMillis;
+		long nextPollMillis;
+
+		PolledFile(final Resource resource, final Path path) {
+			this.resource = resource;
+			this.path = path;
+			this.intervalMillis = PollingPropertiesWatcher.this.minIntervalMillis;
+			// due on the first poll
+			this.nextPollMillis = Long.MIN_VALUE;
+			poll();
+		}
+
+		/**
+		 * @return true if the file exists and has changed since last polled
+		 */
+		boolean poll() {
+			final BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+			}
+			catch (final IOException e) {
+				// missing or being replaced, the change is picked up once it is readable again
+				this.size = -1;
+				this.lastModified = -1;
+				this.fileKey = null;
+				return false;
+			}
+			final long polledSize = attributes.size();
+			final long polledLastModified = attributes.lastModifiedTime()
+				.toMillis();
+			final Object polledFileKey = attributes.fileKey();
+			final boolean changed = polledSize != this.size || polledLastModified != this.lastModified || !Objects.equal(polledFileKey, this.fileKey);
+			this.size = polledSize;
+			this.lastModified = polledLastModified;
+			this.fileKey = polledFileKey;
+			return changed;
+		}
+
+		@Override
+		public String toString() {
+			return this.path.toString();
+		}
+	}
+}
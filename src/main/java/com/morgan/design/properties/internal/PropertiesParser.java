@@ -0,0 +1,244 @@
+package com.morgan.design.properties.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Parser of the <code>.properties</code> format which streams each key and value to a {@link PropertyHandler} rather than building a {@link java.util.Properties}
+ * . Follows the rules of {@link java.util.Properties#load(java.io.Reader)}: comment lines starting with <code>#</code> or <code>!</code>, line continuations,
+ * <code>=</code>, <code>:</code> or white space separators and escape sequences including <code>&#92;uXXXX</code>.
+ * <p>
+ * Logical lines are assembled into a single reused buffer, only the key of each property is allocated before it is handed over.
+ * 
+ * @author James Morgan
+ */
+public abstract class PropertiesParser {
+
+	private static final int INITIAL_LINE_LENGTH = 256;
+
+	/**
+	 * Receives each property in the order defined, a key defined more than once is received once for each definition
+	 */
+	public interface PropertyHandler {
+
+		/**
+		 * @param key the property key
+		 * @param value the property value, only valid for the duration of the call
+		 */
+		void property(String key, CharSequence value);
+	}
+
+	private char[] line = new char[INITIAL_LINE_LENGTH];
+	private final StringBuilder key = new StringBuilder();
+	private final StringBuilder value = new StringBuilder();
+
+	/**
+	 * @param content ISO-8859-1 encoded content, the default encoding of <code>.properties</code> files, read from its position to its limit
+	 * @param handler receives each property parsed
+	 * @throws IllegalArgumentException if the content contains a malformed <code>&#92;uXXXX</code> escape sequence
+	 */
+	public static void parse(final ByteBuffer content, final PropertyHandler handler) {
+		new Latin1Parser(content).parseLines(handler);
+	}
+
+	/**
+	 * @param content decoded content, read from its position to its limit
+	 * @param handler receives each property parsed
+	 * @throws IllegalArgumentException if the content contains a malformed <code>&#92;uXXXX</code> escape sequence
+	 */
+	public static void parse(final CharBuffer content, final PropertyHandler handler) {
+		new CharParser(content).parseLines(handler);
+	}
+
+	/**
+	 * @return the next character of the content, or -1 once the content is exhausted
+	 */
+	abstract int next();
+
+	final void parseLines(final PropertyHandler handler) {
+		int length;
+		while ((length = readLine()) >= 0) {
+			int keyLength = 0;
+			int valueStart = length;
+			boolean hasSeparator = false;
+			boolean precedingBackslash = false;
+			while (keyLength < length) {
+				final char c = this.line[keyLength];
+				if ((c == '=' || c == ':') && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					hasSeparator = true;
+					break;
+				}
+				if (isWhitespace(c) && !precedingBackslash) {
+					valueStart = keyLength + 1;
+					break;
+				}
+				precedingBackslash = c == '\\' && !precedingBackslash;
+				keyLength++;
+			}
+			while (valueStart < length) {
+				final char c = this.line[valueStart];
+				if (!isWhitespace(c)) {
+					if (!hasSeparator && (c == '=' || c == ':')) {
+						hasSeparator = true;
+					}
+					else {
+						break;
+					}
+				}
+				valueStart++;
+			}
+			unescape(0, keyLength, this.key);
+			unescape(valueStart, length, this.value);
+			handler.property(this.key.toString(), this.value);
+		}
+	}
+
+	/**
+	 * Reads the next logical line into the line buffer, skipping blank and comment lines, joining continued lines and dropping leading white space
+	 * 
+	 * @return the length of the line, or -1 once the content is exhausted
+	 */
+	private int readLine() {
+		int length = 0;
+		boolean skipWhitespace = true;
+		boolean commentLine = false;
+		boolean newLine = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+		boolean skipLineFeed = false;
+
+		while (true) {
+			final int c = next();
+			if (c < 0) {
+				if (length == 0 || commentLine) {
+					return -1;
+				}
+				return precedingBackslash
+						? length - 1
+						: length;
+			}
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (c == '\n') {
+					continue;
+				}
+			}
+			if (skipWhitespace) {
+				if (isWhitespace(c) || !appendedLineBegin && (c == '\r' || c == '\n')) {
+					continue;
+				}
+				skipWhitespace = false;
+				appendedLineBegin = false;
+			}
+			if (newLine) {
+				newLine = false;
+				if (c == '#' || c == '!') {
+					commentLine = true;
+					continue;
+				}
+			}
+			if (c != '\n' && c != '\r') {
+				if (!commentLine) {
+					if (length == this.line.length) {
+						this.line = Arrays.copyOf(this.line, length * 2);
+					}
+					this.line[length++] = (char) c;
+					precedingBackslash = c == '\\' && !precedingBackslash;
+				}
+			}
+			else if (commentLine || length == 0) {
+				commentLine = false;
+				newLine = true;
+				skipWhitespace = true;
+				length = 0;
+			}
+			else if (precedingBackslash) {
+				// continuation, drop the backslash and the leading white space of the next line
+				length--;
+				skipWhitespace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				skipLineFeed = c == '\r';
+			}
+			else {
+				return length;
+			}
+		}
+	}
+
+	private void unescape(final int start, final int end, final StringBuilder out) {
+		out.setLength(0);
+		int i = start;
+		while (i < end) {
+			char c = this.line[i++];
+			if (c == '\\' && i < end) {
+				c = this.line[i++];
+				if (c == 'u') {
+					if (i + 4 > end) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+					int unicode = 0;
+					for (final int last = i + 4; i < last; i++) {
+						final int digit = Character.digit(this.line[i], 16);
+						if (digit < 0) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						unicode = (unicode << 4) + digit;
+					}
+					c = (char) unicode;
+				}
+				else if (c == 't') {
+					c = '\t';
+				}
+				else if (c == 'r') {
+					c = '\r';
+				}
+				else if (c == 'n') {
+					c = '\n';
+				}
+				else if (c == 'f') {
+					c = '\f';
+				}
+			}
+			out.append(c);
+		}
+	}
+
+	private static boolean isWhitespace(final int c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static class Latin1Parser extends PropertiesParser {
+
+		private final ByteBuffer content;
+
+		Latin1Parser(final ByteBuffer content) {
+			this.content = content;
+		}
+
+		@Override
+		int next() {
+			return this.content.hasRemaining()
+					? this.content.get() & 0xFF
+					: -1;
+		}
+	}
+
+	private static class CharParser extends PropertiesParser {
+
+		private final CharBuffer content;
+
+		CharParser(final CharBuffer content) {
+			this.content = content;
+		}
+
+		@Override
+		int next() {
+			return this.content.hasRemaining()
+					? this.content.get()
+					: -1;
+		}
+	}
+}
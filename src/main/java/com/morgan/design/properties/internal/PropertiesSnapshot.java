@@ -0,0 +1,271 @@
+package com.morgan.design.properties.internal;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.morgan.design.properties.internal.PlaceholderTemplate.ReferenceResolver;
+
+/**
+ * Immutable, versioned view of the loaded properties. Every reload which changes a property produces a new snapshot with a higher version, readers holding a
+ * snapshot never observe a partially applied reload.
+ * <p>
+ * Values containing placeholders are compiled into {@link PlaceholderTemplate}s as the snapshot is created, properties referencing themselves directly or
+ * transitively are detected at the same time, for a new version only amongst the changed properties and those referencing them. Resolved values are cached
+ * for the lifetime of the snapshot.
+ * <p>
+ * Each snapshot also holds the reverse dependency graph of its placeholders, from each property to the properties referencing it, updated only for the changed
+ * properties as each new version is created.
+ * 
+ * @author James Morgan
+ */
+public class PropertiesSnapshot {
+
+	private final long version;
+	private final ImmutableMap<String, Object> properties;
+	private final ImmutableMap<String, PlaceholderTemplate> templates;
+	private final ImmutableSet<String> circularProperties;
+	private final ImmutableSetMultimap<String, String> dependents;
+	private final ConcurrentMap<String, Object> resolvedValues = Maps.newConcurrentMap();
+
+	private final ReferenceResolver referenceResolver = new ReferenceResolver() {
+		@Override
+		public Object resolve(final String propertyName) {
+			return PropertiesSnapshot.this.resolve(propertyName);
+		}
+	};
+
+	private PropertiesSnapshot(final long version, final ImmutableMap<String, Object> properties, final ImmutableMap<String, PlaceholderTemplate> templates,
+			final ImmutableSetMultimap<String, String> dependents, final ImmutableSet<String> circularProperties) {
+		this.version = version;
+		this.properties = properties;
+		this.templates = templates;
+		this.dependents = dependents;
+		this.circularProperties = circularProperties;
+	}
+
+	/**
+	 * @param properties the properties as loaded on start up
+	 * @return the first snapshot, version 1
+	 */
+	public static PropertiesSnapshot initial(final Properties properties) {
+		final ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+		final Map<String, PlaceholderTemplate> templates = Maps.newHashMap();
+		final SetMultimap<String, String> dependents = HashMultimap.create();
+		for (final Map.Entry<Object, Object> property : properties.entrySet()) {
+			final String propertyName = String.valueOf(property.getKey());
+			builder.put(propertyName, property.getValue());
+			compileInto(templates, dependents, propertyName, property.getValue());
+		}
+		return new PropertiesSnapshot(1, builder.build(), ImmutableMap.copyOf(templates), ImmutableSetMultimap.copyOf(dependents), findCircularProperties(
+				templates, dependents, templates.keySet(), ImmutableSet.<String> of()));
+	}
+
+	/**
+	 * @param changes properties to add or replace
+	 * @return a new snapshot of the next version, or this snapshot if there are no changes
+	 */
+	public PropertiesSnapshot withChanges(final Map<String, ?> changes) {
+		if (changes.isEmpty()) {
+			return this;
+		}
+		final Map<String, Object> properties = Maps.newHashMap(this.properties);
+		properties.putAll(changes);
+
+		// templates and dependencies of unchanged values are carried over rather than compiled again
+		final Map<String, PlaceholderTemplate> templates = Maps.newHashMap(this.templates);
+		final SetMultimap<String, String> dependents = HashMultimap.create(this.dependents);
+		for (final Map.Entry<String, ?> change : changes.entrySet()) {
+			final PlaceholderTemplate previous = templates.remove(change.getKey());
+			if (null != previous) {
+				for (final String reference : previous.getReferences()) {
+					dependents.remove(reference, change.getKey());
+				}
+			}
+			compileInto(templates, dependents, change.getKey(), change.getValue());
+		}
+
+		// only the changed properties and those referencing them can start or stop being circular
+		final Set<String> affected = Sets.newHashSet(changes.keySet());
+		affected.addAll(transitiveDependents(dependents, changes.keySet()));
+		return new PropertiesSnapshot(this.version + 1, ImmutableMap.copyOf(properties), ImmutableMap.copyOf(templates), ImmutableSetMultimap.copyOf(dependents),
+				findCircularProperties(templates, dependents, affected, this.circularProperties));
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * @return the value of the given property, or null if it is not defined
+	 */
+	public Object get(final String propertyName) {
+		return this.properties.get(propertyName);
+	}
+
+	/**
+	 * @return the value of the given property if defined as a string, otherwise null
+	 */
+	public String getProperty(final String propertyName) {
+		final Object value = this.properties.get(propertyName);
+		return value instanceof String
+				? (String) value
+				: null;
+	}
+
+	/**
+	 * @param propertyName the property to resolve
+	 * @return the value of the given property with every placeholder substituted, or null if it is not defined. Placeholders referencing undefined properties
+	 *         are left in place.
+	 * @throws IllegalStateException if the property references itself, directly or through other properties
+	 */
+	public Object resolve(final String propertyName) {
+		final PlaceholderTemplate template = this.templates.get(propertyName);
+		if (null == template) {
+			return this.properties.get(propertyName);
+		}
+		final Object cached = this.resolvedValues.get(propertyName);
+		if (null != cached) {
+			return cached;
+		}
+		if (this.circularProperties.contains(propertyName)) {
+			throw new IllegalStateException(String.format("Circular placeholder reference in property [%s] with value [%s]", propertyName,
+					this.properties.get(propertyName)));
+		}
+		final String resolved = template.render(this.referenceResolver);
+		final Object existing = this.resolvedValues.putIfAbsent(propertyName, resolved);
+		return null == existing
+				? resolved
+				: existing;
+	}
+
+	/**
+	 * @param propertyNames the properties changed
+	 * @return every property referencing any of the given properties, directly or through other properties, in breadth first order. Excludes the given
+	 *         properties unless they reference one another.
+	 */
+	public Set<String> getTransitiveDependents(final Collection<String> propertyNames) {
+		return transitiveDependents(this.dependents, propertyNames);
+	}
+
+	/**
+	 * @return the properties referencing themselves, directly or through other properties, and those referencing such properties
+	 */
+	public Set<String> getCircularProperties() {
+		return this.circularProperties;
+	}
+
+	public Map<String, Object> asMap() {
+		return this.properties;
+	}
+
+	/**
+	 * @return a mutable copy of the snapshot
+	 */
+	public Properties toProperties() {
+		final Properties copy = new Properties();
+		copy.putAll(this.properties);
+		return copy;
+	}
+
+	private static void compileInto(final Map<String, PlaceholderTemplate> templates, final SetMultimap<String, String> dependents, final String propertyName,
+			final Object value) {
+		if (value instanceof String) {
+			final PlaceholderTemplate template = PlaceholderTemplate.compile((String) value);
+			if (null != template) {
+				templates.put(propertyName, template);
+				for (final String reference : template.getReferences()) {
+					dependents.put(reference, propertyName);
+				}
+			}
+		}
+	}
+
+	private static Set<String> transitiveDependents(final SetMultimap<String, String> dependents, final Collection<String> propertyNames) {
+		final Set<String> transitiveDependents = Sets.newLinkedHashSet();
+		final Deque<String> pending = new ArrayDeque<String>(propertyNames);
+		while (!pending.isEmpty()) {
+			for (final String dependent : dependents.get(pending.poll())) {
+				if (transitiveDependents.add(dependent)) {
+					pending.add(dependent);
+				}
+			}
+		}
+		return transitiveDependents;
+	}
+
+	/**
+	 * Peels the affected properties whose references are all known not to be circular, starting from those referencing no other affected property. Affected
+	 * properties never peeled reference a cycle. Properties not affected keep their previous state, a cycle through them would make them affected.
+	 * 
+	 * @param affected the properties whose references may have changed, together with every property referencing them
+	 * @param previouslyCircular the circular properties of the previous version
+	 */
+	private static ImmutableSet<String> findCircularProperties(final Map<String, PlaceholderTemplate> templates, final SetMultimap<String, String> dependents,
+			final Set<String> affected, final Set<String> previouslyCircular) {
+		final Set<String> circular = Sets.newHashSet(Sets.difference(previouslyCircular, affected));
+		final Map<String, Integer> pendingReferences = Maps.newHashMap();
+		final Deque<String> acyclic = new ArrayDeque<String>();
+		for (final String propertyName : affected) {
+			final PlaceholderTemplate template = templates.get(propertyName);
+			if (null == template) {
+				continue;
+			}
+			int pending = 0;
+			for (final String reference : ImmutableSet.copyOf(template.getReferences())) {
+				if (affected.contains(reference) && templates.containsKey(reference)) {
+					pending++;
+				}
+				else if (circular.contains(reference)) {
+					circular.add(propertyName);
+				}
+			}
+			if (circular.contains(propertyName)) {
+				continue;
+			}
+			if (0 == pending) {
+				acyclic.add(propertyName);
+			}
+			else {
+				pendingReferences.put(propertyName, pending);
+			}
+		}
+		while (!acyclic.isEmpty()) {
+			for (final String dependent : dependents.get(acyclic.poll())) {
+				final Integer pending = pendingReferences.get(dependent);
+				if (null == pending) {
+					continue;
+				}
+				if (1 == pending) {
+					pendingReferences.remove(dependent);
+					acyclic.add(dependent);
+				}
+				else {
+					pendingReferences.put(dependent, pending - 1);
+				}
+			}
+		}
+		circular.addAll(pendingReferences.keySet());
+		return ImmutableSet.copyOf(circular);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("version", this.version)
+			.add("properties", this.properties.size())
+			.toString();
+	}
+}
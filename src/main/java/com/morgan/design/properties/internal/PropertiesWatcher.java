@@ -1,6 +1,7 @@
 package com.morgan.design.properties.internal;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 import java.io.IOException;
 import java.nio.file.ClosedWatchServiceException;
@@ -11,18 +12,29 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
-
+import com.google.common.collect.Sets;
+import com.morgan.design.properties.metrics.ReloadMetrics;
+
+/**
+ * Watches the parent directories of the given resources for modification events. A single thread, the one executing {@link #run()}, registers every directory
+ * once with a shared {@link WatchService} and dispatches the events of each signalled {@link WatchKey} to the resources of that directory, the number of
+ * threads used does not depend on the number of directories watched.
+ * <p>
+ * A failure publishing the change of one resource is logged and does not stop the watcher, whether the watcher is still running and when it last received an
+ * event is recorded to the given {@link ReloadMetrics}.
+ * </p>
+ * 
+ * @author James Morgan
+ */
 public class PropertiesWatcher implements Runnable {
 
 	protected static Logger log = LoggerFactory.getLogger(PropertiesWatcher.class);
@@ -34,24 +46,53 @@ public class PropertiesWatcher implements Runnable {
 	private final Resource[] locations;
 	private final EventPublisher eventPublisher;
 
-	private WatchService watchService;
-	final ExecutorService service;
+	private final WatchService watchService;
+	private final ReloadMetrics reloadMetrics;
+
+	// only accessed by the watching thread
+	private final Map<WatchKey, WatchedDirectory> watchedDirectories = Maps.newHashMap();
 
 	public PropertiesWatcher(final Resource[] locations, final EventPublisher eventPublisher) throws IOException {
+		this(locations, eventPublisher, new ReloadMetrics());
+	}
+
+	public PropertiesWatcher(final Resource[] locations, final EventPublisher eventPublisher, final ReloadMetrics reloadMetrics) throws IOException {
 		this.locations = locations;
 		this.eventPublisher = eventPublisher;
+		this.reloadMetrics = reloadMetrics;
 		this.watchService = FileSystems.getDefault()
 			.newWatchService();
-		this.service = Executors.newCachedThreadPool();
 	}
 
 	@Override
 	public void run() {
-		final Map<Path, List<Resource>> pathsAndResources = findAvailableResourcePaths();
-		for (final Path pathToWatch : pathsAndResources.keySet()) {
-			final List<Resource> availableResources = pathsAndResources.get(pathToWatch);
-			log.debug("Starting ResourceWatcher on file {}", availableResources);
-			this.service.submit(new ResourceWatcher(pathToWatch, availableResources));
+		this.reloadMetrics.watcherStarted();
+		Throwable failure = null;
+		try {
+			registerDirectories();
+			log.debug("START");
+			while (!Thread.currentThread()
+				.isInterrupted() && !this.watchedDirectories.isEmpty()) {
+				final WatchKey watchKey;
+				try {
+					watchKey = this.watchService.take();
+				}
+				catch (final ClosedWatchServiceException | InterruptedException e) {
+					Thread.currentThread()
+						.interrupt();
+					break;
+				}
+				dispatchEvents(watchKey);
+			}
+			log.debug("END");
+		}
+		catch (final Exception e) {
+			failure = e;
+			log.error("Exception thrown when watching resources {}, no longer watching", this.watchedDirectories.values(), e);
+			stop();
+		}
+		finally {
+			this.reloadMetrics.watcherStopped(failure);
 		}
 	}
 
@@ -59,26 +100,66 @@ public class PropertiesWatcher implements Runnable {
 		try {
 			log.debug("Closing File Watching Service");
 			this.watchService.close();
-
-			log.debug("Shuting down Thread Service");
-			this.service.shutdownNow();
 		}
 		catch (final IOException e) {
 			log.error("Unable to stop file watcher", e);
 		}
 	}
 
-	private Map<Path, List<Resource>> findAvailableResourcePaths() {
-		final Map<Path, List<Resource>> map = Maps.newHashMap();
+	private void registerDirectories() throws IOException {
+		final Map<Path, WatchedDirectory> directories = Maps.newHashMap();
 		for (final Resource resource : this.locations) {
 			final Path resourceParentPath = getResourceParentPath(resource);
-			if (null == map.get(resourceParentPath)) {
-				map.put(resourceParentPath, new ArrayList<Resource>());
+			if (null == resourceParentPath) {
+				continue;
+			}
+			WatchedDirectory directory = directories.get(resourceParentPath);
+			if (null == directory) {
+				directory = new WatchedDirectory(resourceParentPath);
+				directories.put(resourceParentPath, directory);
+				this.watchedDirectories.put(resourceParentPath.register(this.watchService, ENTRY_MODIFY), directory);
+			}
+			directory.addResource(resource);
+		}
+		for (final WatchedDirectory directory : directories.values()) {
+			log.debug("Watching for modifcation events for path {}", directory);
+		}
+	}
+
+	private void dispatchEvents(final WatchKey watchKey) {
+		this.reloadMetrics.watchEventReceived();
+		final WatchedDirectory directory = this.watchedDirectories.get(watchKey);
+		if (null == directory) {
+			watchKey.cancel();
+			return;
+		}
+
+		// several events for the same file signalled together only need publishing once
+		final Set<Resource> changedResources = Sets.newLinkedHashSet();
+		for (final WatchEvent<?> event : watchKey.pollEvents()) {
+			log.debug("File modification Event Triggered");
+			final Kind<?> eventKind = event.kind();
+			if (eventKind == OVERFLOW) {
+				log.debug("Events lost for path [{}], treating all watched resources as modified", directory.getPath());
+				Iterables.addAll(changedResources, directory.getResources());
+				continue;
+			}
+
+			final Path target = (Path) event.context();
+			final Resource resource = directory.getResource(target);
+			if (null != resource) {
+				logNewEvent(directory.getPath(), eventKind, target);
+				changedResources.add(resource);
 			}
-			map.get(resourceParentPath)
-				.add(resource);
 		}
-		return map;
+		for (final Resource resource : changedResources) {
+			publishResourceChangedEvent(resource);
+		}
+
+		if (!watchKey.reset()) {
+			log.debug("Path [{}] is no longer accessible, no longer watching", directory.getPath());
+			this.watchedDirectories.remove(watchKey);
+		}
 	}
 
 	private Path getResourceParentPath(final Resource resource) {
@@ -94,103 +175,53 @@ public class PropertiesWatcher implements Runnable {
 	}
 
 	private void publishResourceChangedEvent(final Resource resource) {
-		this.eventPublisher.onResourceChanged(resource);
+		try {
+			this.eventPublisher.onResourceChanged(resource);
+		}
+		catch (final RuntimeException e) {
+			log.error("Failed to publish change of resource [{}], continuing to watch", resource, e);
+		}
 	}
 
-	private WatchService getWatchService() {
-		return this.watchService;
+	private void logNewEvent(final Path watchedPath, final Kind<?> eventKind, final Path target) {
+		log.debug("Watched Resource changed, modified file [{}]", target.getFileName()
+			.toString());
+		log.debug("  Event Kind [{}]", eventKind);
+		log.debug("      Target [{}]", target);
+		log.debug("Watched Path [{}]", watchedPath);
 	}
 
-	private class ResourceWatcher implements Runnable {
+	/**
+	 * A watched directory and the resources within it indexed by file name
+	 */
+	private static class WatchedDirectory {
 
 		private final Path path;
-		private final List<Resource> resources;
+		private final Map<Path, Resource> resources = Maps.newHashMap();
 
-		public ResourceWatcher(final Path path, final List<Resource> resources) {
+		public WatchedDirectory(final Path path) {
 			this.path = path;
-			this.resources = resources;
-		}
-
-		@Override
-		public void run() {
-			try {
-				log.debug("START");
-				log.debug("Watching for modifcation events for path {}", this.path.toString());
-				while (!Thread.currentThread()
-					.isInterrupted()) {
-					final WatchKey pathBeingWatched = this.path.register(getWatchService(), ENTRY_MODIFY);
-
-					WatchKey watchKey = null;
-					try {
-						watchKey = getWatchService().take();
-					}
-					catch (final ClosedWatchServiceException | InterruptedException e) {
-						log.debug("END");
-						Thread.currentThread()
-							.interrupt();
-					}
-
-					if (watchKey != null) {
-						for (final WatchEvent<?> event : pathBeingWatched.pollEvents()) {
-							log.debug("File modification Event Triggered");
-							final Path target = path(event.context());
-							if (isValidTargetFile(target)) {
-								final Path watchedPath = path(watchKey.watchable());
-								final Kind<?> eventKind = event.kind();
-
-								logNewEvent(watchedPath, eventKind, target);
-								publishResourceChangedEvent(getResource(target));
-							}
-						}
-						if (!watchKey.reset()) {
-							log.debug("END");
-							Thread.currentThread()
-								.interrupt();
-							return;
-						}
-					}
-				}
-			}
-			catch (final Exception e) {
-				log.error("Exception thrown when watching resources, path {}\nException:", this.path.toString(), e.getMessage());
-				stop();
-			}
 		}
 
-		private void logNewEvent(final Path watchedPath, final Kind<?> eventKind, final Path target) {
-			log.debug("Watched Resource changed, modified file [{}]", target.getFileName()
-				.toString());
-			log.debug("  Event Kind [{}]", eventKind);
-			log.debug("      Target [{}]", target);
-			log.debug("Watched Path [{}]", watchedPath);
+		public Path getPath() {
+			return this.path;
 		}
 
-		private Path path(final Object object) {
-			return (Path) object;
+		public void addResource(final Resource resource) {
+			this.resources.put(Paths.get(resource.getFilename()), resource);
 		}
 
-		private boolean isValidTargetFile(final Path target) {
-			for (final Resource resource : this.resources) {
-				if (pathMatchesResource(target, resource)) {
-					return true;
-				}
-			}
-			return false;
+		public Resource getResource(final Path target) {
+			return this.resources.get(target.getFileName());
 		}
 
-		public Resource getResource(final Path target) {
-			for (final Resource resource : this.resources) {
-				if (pathMatchesResource(target, resource)) {
-					return resource;
-				}
-			}
-			return null;
+		public Iterable<Resource> getResources() {
+			return this.resources.values();
 		}
 
-		private boolean pathMatchesResource(final Path target, final Resource resource) {
-			return target.getFileName()
-				.toString()
-				.equals(resource.getFilename());
+		@Override
+		public String toString() {
+			return this.path.toString();
 		}
 	}
 
@@ -0,0 +1,26 @@
+package com.morgan.design.properties.internal;
+
+/**
+ * How {@link ReloadablePropertyPostProcessor} treats fields whose reloaded values may not be seen by other threads. A reload writes fields from the watching
+ * thread, a plain field read in a loop by another thread may never see the new value as the read can be hoisted out of the loop. Volatile fields and fields
+ * holding a handle, such as {@link com.morgan.design.properties.ReloadableValue}, are always safely published.
+ * 
+ * @author James Morgan
+ */
+public enum PublicationMode {
+
+	/**
+	 * Plain fields are written without any checks
+	 */
+	PLAIN,
+
+	/**
+	 * A warning is logged once for every class with plain fields
+	 */
+	WARN,
+
+	/**
+	 * Beans with plain fields are rejected, every field must be volatile or hold a handle
+	 */
+	STRICT
+}
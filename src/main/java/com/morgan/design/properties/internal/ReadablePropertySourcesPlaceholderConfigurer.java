@@ -1,37 +1,71 @@
 package com.morgan.design.properties.internal;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PropertiesLoaderUtils;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
 import com.morgan.design.properties.bean.PropertyModifiedEvent;
+import com.morgan.design.properties.event.BatchingPropertyChangedEventNotifier;
 import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+import com.morgan.design.properties.internal.PropertiesParser.PropertyHandler;
 import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+import com.morgan.design.properties.metrics.ReloadMetrics;
 import com.morgan.design.properties.resolver.PropertyResolver;
 
 /**
  * Specialisation of {@link PropertySourcesPlaceholderConfigurer} that can react to changes in the resources specified. The watching process does not start by
- * default, initiation is triggered by calling <code>ReadablePropertySourcesPlaceholderConfigurer.startWatching()</code>
+ * default, initiation is triggered by calling <code>ReadablePropertySourcesPlaceholderConfigurer.startWatching()</code>. Watching stops, along with any
+ * change still waiting out its reload delay, once the configurer is destroyed by the container or {@link #stopWatching()} is called.
  * 
  * @author James Morgan
  */
-public class ReadablePropertySourcesPlaceholderConfigurer extends PropertySourcesPlaceholderConfigurer implements EventPublisher {
+public class ReadablePropertySourcesPlaceholderConfigurer extends PropertySourcesPlaceholderConfigurer implements EventPublisher, DisposableBean {
 
 	protected static Logger log = LoggerFactory.getLogger(ReadablePropertySourcesPlaceholderConfigurer.class);
 
 	private final PropertyChangedEventNotifier eventNotifier;
 	private final PropertyResolver propertyResolver;
 
-	private Properties properties;
+	private volatile PropertiesSnapshot snapshot;
 	private Resource[] locations;
+	private boolean ignoreResourceNotFound;
+	private String fileEncoding;
+
+	// properties contributed by each location, used to diff a single resource on reload
+	private final Map<Resource, Map<String, String>> resourceProperties = Maps.newConcurrentMap();
+	private final Map<Resource, ResourceFingerprint> resourceFingerprints = Maps.newConcurrentMap();
+	private ReloadMetrics reloadMetrics = new ReloadMetrics();
+
+	private boolean postPropertyModifiedEvents;
+	private long reloadDelayMillis = 100;
+	private Map<String, Long> resourceReloadDelayMillis = Collections.emptyMap();
+	private WatchStrategy watchStrategy = WatchStrategy.AUTO;
+	private Map<String, WatchStrategy> resourceWatchStrategies = Collections.emptyMap();
+	private long minPollingIntervalMillis = 250;
+	private long maxPollingIntervalMillis = 5000;
+
+	private DebouncingEventPublisher debouncingEventPublisher;
+	private ExecutorService watcherExecutor;
+	private PropertiesWatcher propertiesWatcher;
+	private PollingPropertiesWatcher pollingPropertiesWatcher;
 
 	@Autowired
 	public ReadablePropertySourcesPlaceholderConfigurer(final PropertyChangedEventNotifier eventNotifier, final PropertyResolver propertyResolver) {
@@ -39,10 +73,39 @@ public class ReadablePropertySourcesPlaceholderConfigurer extends PropertySource
 		this.propertyResolver = propertyResolver;
 	}
 
+	/**
+	 * Loads each location separately, recording the properties contributed by every resource before merging them into the given properties. Later locations
+	 * override earlier ones.
+	 */
 	@Override
 	protected void loadProperties(final Properties props) throws IOException {
-		super.loadProperties(props);
-		this.properties = props;
+		if (null != this.locations) {
+			for (final Resource location : this.locations) {
+				log.info("Loading properties file from {}", location);
+				try {
+					final Map<String, String> loadedProperties = loadResourceProperties(location);
+					this.resourceProperties.put(location, loadedProperties);
+					props.putAll(loadedProperties);
+				}
+				catch (final IOException e) {
+					if (!this.ignoreResourceNotFound) {
+						throw e;
+					}
+					log.warn("Could not load properties from {}: {}", location, e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Publishes the merged properties, including any local properties, as the first {@link PropertiesSnapshot}
+	 */
+	@Override
+	protected Properties mergeProperties() throws IOException {
+		final Properties mergedProperties = super.mergeProperties();
+		this.snapshot = PropertiesSnapshot.initial(mergedProperties);
+		logCircularProperties(this.snapshot);
+		return mergedProperties;
 	}
 
 	@Override
@@ -52,84 +115,371 @@ public class ReadablePropertySourcesPlaceholderConfigurer extends PropertySource
 	}
 
 	@Override
-	public void onResourceChanged(final Resource resource) {
+	public void setIgnoreResourceNotFound(final boolean ignoreResourceNotFound) {
+		super.setIgnoreResourceNotFound(ignoreResourceNotFound);
+		this.ignoreResourceNotFound = ignoreResourceNotFound;
+	}
+
+	@Override
+	public void setFileEncoding(final String encoding) {
+		super.setFileEncoding(encoding);
+		this.fileEncoding = encoding;
+	}
+
+	/**
+	 * @param postPropertyModifiedEvents true to post a {@link PropertyModifiedEvent} per changed property, rather than a single {@link PropertiesChangedBatch}
+	 *            per reload, for listeners of the individual events. Individual events are always posted to notifiers which are not a
+	 *            {@link BatchingPropertyChangedEventNotifier}.
+	 */
+	public void setPostPropertyModifiedEvents(final boolean postPropertyModifiedEvents) {
+		this.postPropertyModifiedEvents = postPropertyModifiedEvents;
+	}
+
+	/**
+	 * @param reloadDelayMillis time a changed resource must be left untouched before it is reloaded, bursts of changes within the delay result in a single
+	 *            reload. Zero reloads on every change event.
+	 */
+	public void setReloadDelayMillis(final long reloadDelayMillis) {
+		this.reloadDelayMillis = reloadDelayMillis;
+	}
+
+	/**
+	 * @param resourceReloadDelayMillis reload delays overriding {@link #setReloadDelayMillis(long)} keyed by resource file name
+	 */
+	public void setResourceReloadDelayMillis(final Map<String, Long> resourceReloadDelayMillis) {
+		this.resourceReloadDelayMillis = resourceReloadDelayMillis;
+	}
+
+	/**
+	 * @param watchStrategy how changes to the resources are detected, {@link WatchStrategy#AUTO} by default which polls resources on network file systems
+	 */
+	public void setWatchStrategy(final WatchStrategy watchStrategy) {
+		this.watchStrategy = watchStrategy;
+	}
+
+	/**
+	 * @param resourceWatchStrategies watch strategies overriding {@link #setWatchStrategy(WatchStrategy)} keyed by resource file name
+	 */
+	public void setResourceWatchStrategies(final Map<String, WatchStrategy> resourceWatchStrategies) {
+		this.resourceWatchStrategies = resourceWatchStrategies;
+	}
+
+	/**
+	 * @param minPollingIntervalMillis the interval a polled resource is polled at after it changes
+	 */
+	public void setMinPollingIntervalMillis(final long minPollingIntervalMillis) {
+		this.minPollingIntervalMillis = minPollingIntervalMillis;
+	}
+
+	/**
+	 * @param maxPollingIntervalMillis the longest interval a polled resource unchanged for some time is polled at
+	 */
+	public void setMaxPollingIntervalMillis(final long maxPollingIntervalMillis) {
+		this.maxPollingIntervalMillis = maxPollingIntervalMillis;
+	}
+
+	/**
+	 * @param reloadMetrics the metrics to record reloads to, e.g. an instance exported as an MBean
+	 */
+	public void setReloadMetrics(final ReloadMetrics reloadMetrics) {
+		this.reloadMetrics = reloadMetrics;
+	}
+
+	/**
+	 * Reloads the given resource, diffing its previous and reloaded properties only. A change event is posted for every added, modified or removed property
+	 * whose effective value changes, properties overridden by a later location are left untouched. A property removed from every location retains its last
+	 * value. Resources whose content is unchanged, as determined by their {@link ResourceFingerprint}, are not parsed at all, others are diffed as they are
+	 * parsed. All changes of a reload are published as a single new {@link PropertiesSnapshot} before a single {@link PropertiesChangedBatch} is posted, or a
+	 * {@link PropertyModifiedEvent} per changed property should the notifier not be a {@link BatchingPropertyChangedEventNotifier}. Properties referencing a
+	 * changed property through placeholders, directly or transitively, are included in the batch if their resolved value changes. The time taken by each phase of the reload is recorded to the {@link ReloadMetrics}.
+	 */
+	@Override
+	public synchronized void onResourceChanged(final Resource resource) {
+		final Map<String, String> previousProperties = this.resourceProperties.get(resource);
+		if (null == previousProperties) {
+			log.warn("Ignoring change of resource [{}] which was not loaded on start up", resource);
+			return;
+		}
+		final ReloadMetrics metrics = this.reloadMetrics;
 		try {
-			final Properties reloadedProperties = PropertiesLoaderUtils.loadProperties(resource);
-			for (final String property : this.properties.stringPropertyNames()) {
+			final long parseStart = System.nanoTime();
+			final ResourceFingerprint previousFingerprint = this.resourceFingerprints.get(resource);
+			if (previousFingerprint.hasSameFileState(ResourceFingerprint.fileStateOf(resource))) {
+				skipReload(resource);
+				return;
+			}
+
+			final ResourceContent content = ResourceContent.read(resource);
+			this.resourceFingerprints.put(resource, content.getFingerprint());
+			if (previousFingerprint.hasSameContent(content.getFingerprint())) {
+				skipReload(resource);
+				return;
+			}
 
-				final String oldValue = this.properties.getProperty(property);
-				final String newValue = reloadedProperties.getProperty(property);
+			final ResourceDiff diff = new ResourceDiff(previousProperties);
+			content.parse(this.fileEncoding, diff);
+			this.resourceProperties.put(resource, diff.getReloadedProperties());
 
-				if (propertyExistsAndNotNull(property, newValue) && propertyChange(oldValue, newValue)) {
+			final long diffStart = System.nanoTime();
+			final PropertiesSnapshot previousSnapshot = this.snapshot;
+			final Map<String, String> changes = Maps.newLinkedHashMap();
+			final List<PropertyModifiedEvent> events = Lists.newArrayList();
+			for (final String property : diff.getChangedProperties()) {
+				final String oldValue = previousSnapshot.getProperty(property);
+				final String newValue = effectiveValue(property);
 
-					// Update locally stored copy of properties
-					this.properties.setProperty(property, newValue);
+				if (null == newValue) {
+					log.debug("Property [{}] no longer defined by any location, retaining last value", property);
+				}
+				else if (!Objects.equal(oldValue, newValue)) {
+					changes.put(property, newValue);
+					events.add(new PropertyModifiedEvent(property, oldValue, newValue));
+				}
+			}
+
+			// Swap in the new snapshot before notifying, listeners resolve against the reloaded properties
+			this.snapshot = previousSnapshot.withChanges(changes);
+			if (this.snapshot != previousSnapshot) {
+				logCircularProperties(this.snapshot);
+			}
+
+			// Properties referencing a changed property through placeholders have effectively changed too
+			for (final String dependent : this.snapshot.getTransitiveDependents(changes.keySet())) {
+				if (!changes.containsKey(dependent)) {
+					final Object oldValue = resolveQuietly(previousSnapshot, dependent);
+					final Object newValue = resolveQuietly(this.snapshot, dependent);
+					if (!Objects.equal(oldValue, newValue)) {
+						events.add(new PropertyModifiedEvent(dependent, oldValue, newValue));
+					}
+				}
+			}
 
-					// Post change event to notify any potential listeners
-					this.eventNotifier.post(new PropertyModifiedEvent(property, oldValue, newValue));
+			// Post change events to notify any potential listeners
+			final long dispatchStart = System.nanoTime();
+			if (!events.isEmpty()) {
+				if (this.postPropertyModifiedEvents || !(this.eventNotifier instanceof BatchingPropertyChangedEventNotifier)) {
+					for (final PropertyModifiedEvent event : events) {
+						this.eventNotifier.post(event);
+					}
+				}
+				else {
+					((BatchingPropertyChangedEventNotifier) this.eventNotifier).post(new PropertiesChangedBatch(this.snapshot.getVersion(), events));
 				}
 			}
+			final long dispatchEnd = System.nanoTime();
+			metrics.reloaded(resource, diffStart - parseStart, dispatchStart - diffStart, dispatchEnd - dispatchStart, events.size());
 		}
 		catch (final IOException e) {
-			log.error("Failed to reload properties file once change", e);
+			metrics.reloadFailed(resource);
+			log.error("Failed to reload properties file [{}] once changed", resource, e);
 		}
 	}
 
+	/**
+	 * @return a copy of the current properties, changes to the copy are not reflected
+	 */
 	public Properties getProperties() {
-		return this.properties;
+		return this.snapshot.toProperties();
 	}
 
-	public void startWatching() {
+	/**
+	 * @return the current properties, replaced as a whole by every reload which changes a property
+	 */
+	public PropertiesSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+	/**
+	 * @return the number of resource changes ignored as the content of the resource was unchanged
+	 */
+	public long getSkippedReloadCount() {
+		return this.reloadMetrics.getSkippedReloadCount();
+	}
+
+	/**
+	 * @return the metrics reloads are recorded to
+	 */
+	public ReloadMetrics getReloadMetrics() {
+		return this.reloadMetrics;
+	}
+
+	/**
+	 * Starts watching the locations for changes, each location is either watched through a {@link PropertiesWatcher} or polled by a
+	 * {@link PollingPropertiesWatcher} as chosen by its {@link WatchStrategy}. Locations are polled if the watch service cannot be started.
+	 */
+	public synchronized void startWatching() {
 		if (null == this.eventNotifier) {
 			throw new BeanInitializationException("Event bus not setup, you should not be calling this method...!");
 		}
-		try {
-			// Here we actually create and set a FileWatcher to monitor the given locations
-			Executors.newSingleThreadExecutor()
-				.execute(new PropertiesWatcher(this.locations, this));
+		if (null == this.locations) {
+			return;
 		}
-		catch (final IOException e) {
-			log.error("Unable to start properties file watcher", e);
+		final List<Resource> watchedLocations = Lists.newArrayList();
+		final List<Resource> polledLocations = Lists.newArrayList();
+		for (final Resource location : this.locations) {
+			if (watchStrategyFor(location).polls(location)) {
+				polledLocations.add(location);
+			}
+			else {
+				watchedLocations.add(location);
+			}
+		}
+
+		this.debouncingEventPublisher = new DebouncingEventPublisher(this, this.reloadDelayMillis, this.resourceReloadDelayMillis);
+		if (!watchedLocations.isEmpty()) {
+			try {
+				// Here we actually create and set a FileWatcher to monitor the given locations
+				this.propertiesWatcher = new PropertiesWatcher(watchedLocations.toArray(new Resource[watchedLocations.size()]), this.debouncingEventPublisher,
+						this.reloadMetrics);
+				this.watcherExecutor = Executors.newSingleThreadExecutor();
+				this.watcherExecutor.execute(this.propertiesWatcher);
+			}
+			catch (final IOException e) {
+				log.error("Unable to start properties file watcher, polling resources instead", e);
+				polledLocations.addAll(watchedLocations);
+			}
+		}
+		if (!polledLocations.isEmpty()) {
+			this.pollingPropertiesWatcher = new PollingPropertiesWatcher(polledLocations.toArray(new Resource[polledLocations.size()]),
+					this.debouncingEventPublisher, this.minPollingIntervalMillis, this.maxPollingIntervalMillis, this.reloadMetrics);
+			this.pollingPropertiesWatcher.start();
 		}
 	}
 
+	/**
+	 * Stops the watchers started by {@link #startWatching()}, then discards any change still waiting out its reload delay
+	 */
+	public synchronized void stopWatching() {
+		if (null != this.propertiesWatcher) {
+			this.propertiesWatcher.stop();
+			this.watcherExecutor.shutdown();
+			this.propertiesWatcher = null;
+			this.watcherExecutor = null;
+		}
+		if (null != this.pollingPropertiesWatcher) {
+			this.pollingPropertiesWatcher.stop();
+			this.pollingPropertiesWatcher = null;
+		}
+		if (null != this.debouncingEventPublisher) {
+			this.debouncingEventPublisher.stop();
+			this.debouncingEventPublisher = null;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		stopWatching();
+	}
+
 	public Object resolveProperty(final Object property) {
-		Object resolvedPropertyValue = this.properties.get(this.propertyResolver.resolveProperty(property));
-		if (notStringpropertyToSubstitute(resolvedPropertyValue)) {
-            return resolvedPropertyValue;        	
-        }
-		while (this.propertyResolver.requiresFurtherResoltuion(resolvedPropertyValue)) {
-			resolvedPropertyValue = buildResolvedString(resolvedPropertyValue);
-		}		
-		return resolvedPropertyValue;
+		return resolveProperty(this.snapshot, property);
 	}
 
-	private Object buildResolvedString(final Object resolvedPropertyValue) {
-		final String resolvedValueStr = resolvedPropertyValue.toString();
-		
-		final int startingIndex = resolvedValueStr.indexOf("${");
-		final int endingIndex = resolvedValueStr.indexOf("}", startingIndex) + 1;
-		
-		final String toResolve = resolvedValueStr.substring(startingIndex, endingIndex);
-		final String resolved = resolveProperty(toResolve).toString();
-		
-		return new StringBuilder()
-						.append(resolvedValueStr.substring(0, startingIndex))
-						.append(resolved)
-						.append(resolvedValueStr.substring(endingIndex))
-						.toString();
+	/**
+	 * @param snapshot the properties to resolve against, every substitution is resolved against the same snapshot
+	 * @param property the property to resolve
+	 * @return the resolved value of the property, placeholders are substituted using the templates compiled by the snapshot
+	 * @throws IllegalStateException if the property references itself, directly or through other properties
+	 */
+	public Object resolveProperty(final PropertiesSnapshot snapshot, final Object property) {
+		final String propertyName = this.propertyResolver.resolveProperty(property);
+		final Object value = snapshot.get(propertyName);
+		if (!(value instanceof String) || !this.propertyResolver.requiresFurtherResoltuion(value)) {
+			return value;
+		}
+		return snapshot.resolve(propertyName);
 	}
 
-	private boolean notStringpropertyToSubstitute(final Object resolvedPropertyValue) {
-		return !(resolvedPropertyValue instanceof String);
+	/**
+	 * @return the value of the given property from the last location defining it, or null if no location defines it
+	 */
+	private String effectiveValue(final String property) {
+		for (int i = this.locations.length - 1; i >= 0; i--) {
+			final Map<String, String> locationProperties = this.resourceProperties.get(this.locations[i]);
+			if (null != locationProperties && locationProperties.containsKey(property)) {
+				return locationProperties.get(property);
+			}
+		}
+		return null;
 	}
 
-	private boolean propertyChange(final String oldValue, final String newValue) {
-		return null == oldValue || !oldValue.equals(newValue);
+	private WatchStrategy watchStrategyFor(final Resource resource) {
+		final WatchStrategy resourceWatchStrategy = this.resourceWatchStrategies.get(resource.getFilename());
+		return null == resourceWatchStrategy
+				? this.watchStrategy
+				: resourceWatchStrategy;
 	}
 
-	private boolean propertyExistsAndNotNull(final String property, final String newValue) {
-		return this.properties.containsKey(property) && null != newValue;
+	private Map<String, String> loadResourceProperties(final Resource resource) throws IOException {
+		final ResourceContent content = ResourceContent.read(resource);
+		this.resourceFingerprints.put(resource, content.getFingerprint());
+		return content.toProperties(this.fileEncoding);
 	}
 
+	/**
+	 * @return the resolved value of the given property, or null if the property is part of a circular reference
+	 */
+	private static Object resolveQuietly(final PropertiesSnapshot snapshot, final String property) {
+		try {
+			return snapshot.resolve(property);
+		}
+		catch (final IllegalStateException e) {
+			return null;
+		}
+	}
+
+	private static void logCircularProperties(final PropertiesSnapshot snapshot) {
+		if (!snapshot.getCircularProperties()
+			.isEmpty()) {
+			log.error("Properties {} contain circular placeholder references and cannot be resolved", snapshot.getCircularProperties());
+		}
+	}
+
+	private void skipReload(final Resource resource) {
+		this.reloadMetrics.reloadSkipped(resource);
+		log.debug("Content of resource [{}] unchanged, skipping reload", resource);
+	}
+
+	/**
+	 * Diffs the properties of a resource against those previously loaded as they are parsed. Unchanged values reuse the previously loaded string.
+	 */
+	private static class ResourceDiff implements PropertyHandler {
+
+		private final Map<String, String> previousProperties;
+		private final Map<String, String> reloadedProperties;
+		private final Set<String> changedProperties = Sets.newLinkedHashSet();
+
+		ResourceDiff(final Map<String, String> previousProperties) {
+			this.previousProperties = previousProperties;
+			this.reloadedProperties = Maps.newHashMapWithExpectedSize(previousProperties.size());
+		}
+
+		@Override
+		public void property(final String key, final CharSequence value) {
+			final String previousValue = this.previousProperties.get(key);
+			if (null != previousValue && previousValue.contentEquals(value)) {
+				this.reloadedProperties.put(key, previousValue);
+			}
+			else {
+				this.reloadedProperties.put(key, value.toString());
+				this.changedProperties.add(key);
+			}
+		}
+
+		Map<String, String> getReloadedProperties() {
+			return this.reloadedProperties;
+		}
+
+		/**
+		 * @return the keys added, modified or removed, in that order
+		 */
+		Set<String> getChangedProperties() {
+			for (final String key : this.previousProperties.keySet()) {
+				if (!this.reloadedProperties.containsKey(key)) {
+					this.changedProperties.add(key);
+				}
+			}
+			return this.changedProperties;
+		}
+	}
 }
@@ -1,11 +1,10 @@
 package com.morgan.design.properties.internal;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
@@ -14,17 +13,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ReflectionUtils;
 
-import com.google.common.collect.Maps;
+import com.google.common.base.Supplier;
+import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
 import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.ReloadableValue;
 import com.morgan.design.properties.bean.BeanPropertyHolder;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
 import com.morgan.design.properties.bean.PropertyModifiedEvent;
 import com.morgan.design.properties.conversion.PropertyConversionService;
 import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+import com.morgan.design.properties.internal.InjectionPlan.InjectionPoint;
 
 /**
  * <p>
@@ -39,19 +43,61 @@ import com.morgan.design.properties.event.PropertyChangedEventNotifier;
  * <p>
  * The processor will also substitute any properties with values starting with "${" and ending with "}", none recursive.
  * </p>
+ * <p>
+ * The annotated fields of each bean class are scanned once and cached as an {@link InjectionPlan}, further instances of the same class reuse the cached plan.
+ * Classes compiled with the <code>reloadable-properties-processor</code> are not scanned, their generated injector is used instead.
+ * </p>
+ * <p>
+ * Fields holding a {@link ReloadableValue}, or a primitive handle such as {@link com.morgan.design.properties.ReloadableInt}, may be declared final, the value
+ * of the handle is set on reload rather than the field itself.
+ * </p>
+ * <p>
+ * Subscribed beans are weakly referenced, subscriptions are dropped once a bean is destroyed by the container or garbage collected.
+ * </p>
+ * <p>
+ * A field which fails to update is logged and counted in the {@link com.morgan.design.properties.metrics.ReloadMetrics}, the remaining subscribed fields are
+ * still updated. Updates are applied on the dispatching thread unless a <code>subscriberExecutor</code> is set, each bean then has a bounded queue of its
+ * own drained on the executor, so a bean slow to update only delays itself. A full queue is handled according to the {@link SlowSubscriberPolicy}. Updates
+ * taking longer than the <code>slowUpdateThresholdMillis</code> are only reported as slow, they are neither interrupted nor abandoned.
+ * </p>
  * 
  * @author James Morgan
  */
 @Component
-public class ReloadablePropertyPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
+public class ReloadablePropertyPostProcessor extends InstantiationAwareBeanPostProcessorAdapter implements DestructionAwareBeanPostProcessor {
 
 	protected static Logger log = LoggerFactory.getLogger(ReloadablePropertyPostProcessor.class);
 
+	public static final int DEFAULT_SUBSCRIBER_QUEUE_CAPACITY = 64;
+	public static final long DEFAULT_SUBSCRIBER_BLOCK_TIMEOUT_MILLIS = 100;
+	public static final long DEFAULT_SLOW_UPDATE_THRESHOLD_MILLIS = 100;
+
 	private final PropertyChangedEventNotifier eventNotifier;
 	private final PropertyConversionService propertyConversionService;
 	private final ReadablePropertySourcesPlaceholderConfigurer placeholderConfigurer;
 
-	private Map<String, Set<BeanPropertyHolder>> beanPropertySubscriptions = Maps.newHashMap();
+	private final BeanPropertySubscriptions beanPropertySubscriptions = new BeanPropertySubscriptions();
+	private volatile PublicationMode publicationMode = PublicationMode.PLAIN;
+
+	private volatile SubscriberDispatcher subscriberDispatcher;
+	private volatile SlowSubscriberPolicy slowSubscriberPolicy = SlowSubscriberPolicy.CONFLATE;
+	private volatile int subscriberQueueCapacity = DEFAULT_SUBSCRIBER_QUEUE_CAPACITY;
+	private volatile long subscriberBlockTimeoutMillis = DEFAULT_SUBSCRIBER_BLOCK_TIMEOUT_MILLIS;
+	private volatile long slowUpdateThresholdMillis = DEFAULT_SLOW_UPDATE_THRESHOLD_MILLIS;
+
+	private final ClassValue<InjectionPlan> injectionPlans = new ClassValue<InjectionPlan>() {
+		@Override
+		protected InjectionPlan computeValue(final Class<?> type) {
+			final PublicationMode mode = ReloadablePropertyPostProcessor.this.publicationMode;
+			final InjectionPlan injectionPlan = InjectionPlan.forClass(type, ReloadablePropertyPostProcessor.this.propertyConversionService, mode);
+			if (mode == PublicationMode.WARN && !injectionPlan.getPlainFields()
+				.isEmpty()) {
+				log.warn("Reloaded values of fields {} may not be seen by other threads, declare the fields volatile or use a ReloadableValue",
+						injectionPlan.getPlainFields());
+			}
+			return injectionPlan;
+		}
+	};
 
 	@Autowired
 	public ReloadablePropertyPostProcessor(final ReadablePropertySourcesPlaceholderConfigurer placeholderConfigurer,
@@ -61,6 +107,69 @@ public class ReloadablePropertyPostProcessor extends InstantiationAwareBeanPostP
 		this.propertyConversionService = conversionService;
 	}
 
+	/**
+	 * @param publicationMode how fields which are neither volatile nor hold a handle are treated, {@link PublicationMode#PLAIN} by default. Only applies to
+	 *            classes processed after the mode is set.
+	 */
+	public void setPublicationMode(final PublicationMode publicationMode) {
+		this.publicationMode = publicationMode;
+	}
+
+	/**
+	 * @param subscriberExecutor executor applying the updates of each bean from a queue of its own, null to apply updates on the dispatching thread
+	 */
+	public void setSubscriberExecutor(final Executor subscriberExecutor) {
+		this.subscriberDispatcher = null == subscriberExecutor
+				? null
+				: new SubscriberDispatcher(this, this.placeholderConfigurer, subscriberExecutor);
+	}
+
+	/**
+	 * @param slowSubscriberPolicy what to do with an update for a bean whose queue is full, {@link SlowSubscriberPolicy#CONFLATE} by default
+	 */
+	public void setSlowSubscriberPolicy(final SlowSubscriberPolicy slowSubscriberPolicy) {
+		this.slowSubscriberPolicy = slowSubscriberPolicy;
+	}
+
+	/**
+	 * @param subscriberQueueCapacity the number of pending updates queued per bean under {@link SlowSubscriberPolicy#DROP} and
+	 *            {@link SlowSubscriberPolicy#BLOCK}, {@value #DEFAULT_SUBSCRIBER_QUEUE_CAPACITY} by default
+	 */
+	public void setSubscriberQueueCapacity(final int subscriberQueueCapacity) {
+		if (subscriberQueueCapacity < 1) {
+			throw new IllegalArgumentException("Subscriber queue capacity must be at least one update");
+		}
+		this.subscriberQueueCapacity = subscriberQueueCapacity;
+	}
+
+	/**
+	 * @param subscriberBlockTimeoutMillis the longest the dispatching thread waits for a full queue under {@link SlowSubscriberPolicy#BLOCK} before dropping
+	 *            the update, {@value #DEFAULT_SUBSCRIBER_BLOCK_TIMEOUT_MILLIS} by default
+	 */
+	public void setSubscriberBlockTimeoutMillis(final long subscriberBlockTimeoutMillis) {
+		this.subscriberBlockTimeoutMillis = subscriberBlockTimeoutMillis;
+	}
+
+	/**
+	 * @param slowUpdateThresholdMillis time a single field update may take before it is logged and counted as slow, the update itself always runs to
+	 *            completion, {@value #DEFAULT_SLOW_UPDATE_THRESHOLD_MILLIS} by default
+	 */
+	public void setSlowUpdateThresholdMillis(final long slowUpdateThresholdMillis) {
+		this.slowUpdateThresholdMillis = slowUpdateThresholdMillis;
+	}
+
+	SlowSubscriberPolicy getSlowSubscriberPolicy() {
+		return this.slowSubscriberPolicy;
+	}
+
+	int getSubscriberQueueCapacity() {
+		return this.subscriberQueueCapacity;
+	}
+
+	long getSubscriberBlockTimeoutMillis() {
+		return this.subscriberBlockTimeoutMillis;
+	}
+
 	@PostConstruct
 	protected void init() {
 		log.info("Registering ReloadablePropertyProcessor for properties file changes");
@@ -81,36 +190,139 @@ public class ReloadablePropertyPostProcessor extends InstantiationAwareBeanPostP
 	public final void registerPropertyReloader() {
 		// Setup Guava event bus listener
 		this.eventNotifier.register(this);
+		// Expose subscriptions through the reload metrics
+		this.placeholderConfigurer.getReloadMetrics()
+			.setSubscriberCounts(new Supplier<Map<String, Integer>>() {
+				@Override
+				public Map<String, Integer> get() {
+					return ReloadablePropertyPostProcessor.this.beanPropertySubscriptions.getSubscriberCounts();
+				}
+			});
 		// Trigger resource change listener
 		this.placeholderConfigurer.startWatching();
 	}
 
 	/**
-	 * Method subscribing to the {@link PropertyModifiedEvent} utilising the {@link Subscribe} annotation
+	 * Method subscribing to the {@link PropertyModifiedEvent} utilising the {@link Subscribe} annotation. Changes of different properties may be handled
+	 * concurrently, e.g. by the lanes of an {@link com.morgan.design.properties.event.ExecutorPropertyChangedEventNotifier}.
 	 * 
 	 * @param event the {@link PropertyModifiedEvent} detailing what's changed
 	 */
 	@Subscribe
+	@AllowConcurrentEvents
 	public void handlePropertyChange(final PropertyModifiedEvent event) {
-		for (final BeanPropertyHolder bean : this.beanPropertySubscriptions.get(event.getPropertyName())) {
-			updateField(bean, event);
+		final long start = System.nanoTime();
+		final PropertiesSnapshot snapshot = this.placeholderConfigurer.getSnapshot();
+		final int fieldsWritten = deliver(this.beanPropertySubscriptions.getSubscribers(event.getPropertyName()), snapshot);
+		if (null == this.subscriberDispatcher) {
+			this.placeholderConfigurer.getReloadMetrics()
+				.fieldsWritten(System.nanoTime() - start, fieldsWritten);
+		}
+	}
+
+	/**
+	 * Method subscribing to the {@link PropertiesChangedBatch} utilising the {@link Subscribe} annotation, every change of the batch is applied in a single pass
+	 * resolving against the same properties snapshot
+	 * 
+	 * @param batch the {@link PropertiesChangedBatch} detailing what's changed
+	 */
+	@Subscribe
+	@AllowConcurrentEvents
+	public void handlePropertiesChanged(final PropertiesChangedBatch batch) {
+		final long start = System.nanoTime();
+		final PropertiesSnapshot snapshot = this.placeholderConfigurer.getSnapshot();
+		int fieldsWritten = 0;
+		for (final PropertyModifiedEvent event : batch.getChanges()) {
+			fieldsWritten += deliver(this.beanPropertySubscriptions.getSubscribers(event.getPropertyName()), snapshot);
+		}
+		if (null == this.subscriberDispatcher) {
+			this.placeholderConfigurer.getReloadMetrics()
+				.fieldsWritten(System.nanoTime() - start, fieldsWritten);
+		}
+	}
+
+	/**
+	 * @return the number of fields written on the calling thread, zero if the updates were queued on the subscriber executor
+	 */
+	private int deliver(final List<BeanPropertyHolder> subscribers, final PropertiesSnapshot snapshot) {
+		final SubscriberDispatcher dispatcher = this.subscriberDispatcher;
+		int fieldsWritten = 0;
+		for (final BeanPropertyHolder holder : subscribers) {
+			if (null != dispatcher) {
+				dispatcher.dispatch(holder);
+			}
+			else if (applyUpdate(holder, snapshot)) {
+				fieldsWritten++;
+			}
+		}
+		return fieldsWritten;
+	}
+
+	/**
+	 * Updates a single subscribed field, failures are logged and counted rather than thrown so the remaining subscribers are still updated
+	 * 
+	 * @return true if the field was written
+	 */
+	boolean applyUpdate(final BeanPropertyHolder holder, final PropertiesSnapshot snapshot) {
+		final long start = System.nanoTime();
+		try {
+			return updateField(holder, holder.getPropertyName(), snapshot);
+		}
+		catch (final RuntimeException e) {
+			this.placeholderConfigurer.getReloadMetrics()
+				.subscriberUpdateFailed();
+			log.error("Unable to reload property [{}] on field [{}], continuing with the remaining subscribers", new Object[] { holder.getPropertyName(),
+					holder.getField(), e });
+			return false;
+		}
+		finally {
+			final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (elapsedMillis > this.slowUpdateThresholdMillis) {
+				this.placeholderConfigurer.getReloadMetrics()
+					.subscriberUpdateSlow();
+				log.warn("Reloading property [{}] on field [{}] took {}ms, exceeding the slow update threshold of {}ms", new Object[] {
+						holder.getPropertyName(), holder.getField(), elapsedMillis, this.slowUpdateThresholdMillis });
+			}
 		}
 	}
 
 	public void updateField(final BeanPropertyHolder holder, final PropertyModifiedEvent event) {
+		updateField(holder, event.getPropertyName(), this.placeholderConfigurer.getSnapshot());
+	}
+
+	/**
+	 * @return true if the field was written
+	 */
+	private boolean updateField(final BeanPropertyHolder holder, final String propertyName, final PropertiesSnapshot snapshot) {
 		final Object beanToUpdate = holder.getBean();
+		if (null == beanToUpdate) {
+			// bean garbage collected since the change was dispatched
+			return false;
+		}
 		final Field fieldToUpdate = holder.getField();
 		final String canonicalName = beanToUpdate.getClass()
 			.getCanonicalName();
 
-		final Object convertedProperty = convertPropertyForField(fieldToUpdate, event.getPropertyName());
+		final Object convertedProperty;
+		try {
+			convertedProperty = holder.getConverter()
+				.convert(resolverProperty(snapshot, propertyName));
+		}
+		catch (final RuntimeException e) {
+			this.placeholderConfigurer.getReloadMetrics()
+				.conversionFailed();
+			throw e;
+		}
 		try {
-			log.info("Reloading property [{}] on field [{}] for class [{}]", new Object[] { event.getPropertyName(), fieldToUpdate.getName(), canonicalName });
-			fieldToUpdate.set(beanToUpdate, convertedProperty);
+			log.info("Reloading property [{}] on field [{}] for class [{}]", new Object[] { propertyName, fieldToUpdate.getName(), canonicalName });
+			holder.getFieldWriter()
+				.write(beanToUpdate, convertedProperty);
+			return true;
 		}
-		catch (final IllegalAccessException e) {
+		catch (final IllegalStateException e) {
 			log.error("Unable to reloading property [{}] on field [{}] for class [{}]\n Exception [{}]",
-					new Object[] { event.getPropertyName(), fieldToUpdate.getName(), canonicalName, e.getMessage() });
+					new Object[] { propertyName, fieldToUpdate.getName(), canonicalName, e.getMessage() });
+			return false;
 		}
 	}
 
@@ -123,91 +335,82 @@ public class ReloadablePropertyPostProcessor extends InstantiationAwareBeanPostP
 		return true;
 	}
 
-	private void setPropertiesOnBean(final Object bean) {
-		ReflectionUtils.doWithFields(bean.getClass(), new ReflectionUtils.FieldCallback() {
-
-			@Override
-			public void doWith(final Field field) throws IllegalArgumentException, IllegalAccessException {
+	/**
+	 * Removes the subscriptions of beans being destroyed by the container, e.g. request scoped beans at the end of a request.
+	 */
+	@Override
+	public void postProcessBeforeDestruction(final Object bean, final String beanName) throws BeansException {
+		final InjectionPlan injectionPlan = this.injectionPlans.get(bean.getClass());
+		for (final InjectionPoint injectionPoint : injectionPlan.getInjectionPoints()) {
+			this.beanPropertySubscriptions.unsubscribe(injectionPoint.getPropertyName(), bean);
+		}
+	}
 
-				final ReloadableProperty annotation = field.getAnnotation(ReloadableProperty.class);
-				if (null != annotation) {
+	private void setPropertiesOnBean(final Object bean) {
+		final InjectionPlan injectionPlan = this.injectionPlans.get(bean.getClass());
+		if (injectionPlan.isEmpty()) {
+			return;
+		}
+		injectionPlan.validate();
 
-					ReflectionUtils.makeAccessible(field);
-					validateFieldNotFinal(bean, field);
+		final PropertiesSnapshot snapshot = this.placeholderConfigurer.getSnapshot();
+		for (final InjectionPoint injectionPoint : injectionPlan.getInjectionPoints()) {
+			final Field field = injectionPoint.getField();
+			final String propertyName = injectionPoint.getPropertyName();
 
-					final Object property = getProperties().get(annotation.value());
-					validatePropertyAvailableOrDefaultSet(bean, field, annotation, property);
+			final Object property = snapshot.get(propertyName);
+			validatePropertyAvailableOrDefaultSet(bean, field, propertyName, property);
 
-					if (null != property) {
+			if (null != property) {
 
-						log.info("Attempting to convert and set property [{}] on field [{}] for class [{}] to type [{}]",
-								new Object[] { property, field.getName(), bean.getClass()
-									.getCanonicalName(), field.getType() });
+				log.info("Attempting to convert and set property [{}] on field [{}] for class [{}] to type [{}]", new Object[] { property, field.getName(),
+						bean.getClass()
+							.getCanonicalName(), field.getType() });
 
-						final Object convertedProperty = convertPropertyForField(field, annotation.value());
+				final Object convertedProperty = injectionPoint.getConverter()
+					.convert(resolverProperty(snapshot, propertyName));
 
-						log.info("Setting field [{}] of class [{}] with value [{}]", new Object[] { field.getName(), bean.getClass()
-							.getCanonicalName(), convertedProperty });
+				log.info("Setting field [{}] of class [{}] with value [{}]", new Object[] { field.getName(), bean.getClass()
+					.getCanonicalName(), convertedProperty });
 
-						field.set(bean, convertedProperty);
+				injectionPoint.getFieldWriter()
+					.write(bean, convertedProperty);
 
-						subscribeBeanToPropertyChangedEvent(annotation.value(), new BeanPropertyHolder(bean, field));
-					}
-					else {
-						log.info("Leaving field [{}] of class [{}] with default value", new Object[] { field.getName(), bean.getClass()
-							.getCanonicalName() });
-					}
-				}
+				subscribeBeanToPropertyChangedEvent(propertyName, bean, injectionPoint);
+			}
+			else {
+				log.info("Leaving field [{}] of class [{}] with default value", new Object[] { field.getName(), bean.getClass()
+					.getCanonicalName() });
 			}
-		});
+		}
 	}
 
-	private void validatePropertyAvailableOrDefaultSet(final Object bean, final Field field, final ReloadableProperty annotation, final Object property)
-			throws IllegalArgumentException, IllegalAccessException {
+	private void validatePropertyAvailableOrDefaultSet(final Object bean, final Field field, final String propertyName, final Object property) {
 		if (null == property && fieldDoesNotHaveDefault(field, bean)) {
 			throw new BeanInitializationException(String.format("No property found for field annotated with @ReloadableProperty, "
 				+ "and no default specified. Property [%s] of class [%s] requires a property named [%s]", field.getName(), bean.getClass()
-				.getCanonicalName(), annotation.value()));
-		}
-	}
-
-	private void validateFieldNotFinal(final Object bean, final Field field) {
-		if (Modifier.isFinal(field.getModifiers())) {
-			throw new BeanInitializationException(String.format("Unable to set field [%s] of class [%s] as is declared final", field.getName(), bean.getClass()
-				.getCanonicalName()));
+				.getCanonicalName(), propertyName));
 		}
 	}
 
-	private boolean fieldDoesNotHaveDefault(final Field field, final Object value) throws IllegalArgumentException, IllegalAccessException {
-		try {
-			return (null == field.get(value));
-		}
-		catch (final NullPointerException e) {
-			return true;
+	private boolean fieldDoesNotHaveDefault(final Field field, final Object value) {
+		final Object fieldValue = ReflectionUtils.getField(field, value);
+		if (fieldValue instanceof ReloadableValue) {
+			return null == ((ReloadableValue<?>) fieldValue).get();
 		}
+		return null == fieldValue;
 	}
 
-	private void subscribeBeanToPropertyChangedEvent(final String property, final BeanPropertyHolder fieldProperty) {
-		if (!this.beanPropertySubscriptions.containsKey(property)) {
-			this.beanPropertySubscriptions.put(property, new HashSet<BeanPropertyHolder>());
-		}
-		this.beanPropertySubscriptions.get(property)
-			.add(fieldProperty);
+	private void subscribeBeanToPropertyChangedEvent(final String property, final Object bean, final InjectionPoint injectionPoint) {
+		this.beanPropertySubscriptions.subscribe(property, bean, injectionPoint.getField(), injectionPoint.getFieldWriter(),
+				injectionPoint.getConverter());
 	}
 
 	// ///////////////////////////////////
 	// Utility methods for class access //
 	// ///////////////////////////////////
 
-	private Object convertPropertyForField(final Field field, final Object property) {
-		return this.propertyConversionService.convertPropertyForField(field, resolverProperty(property));
-	}
-
-	private Object resolverProperty(final Object property) {
-		return this.placeholderConfigurer.resolveProperty(property);
-	}
-
-	private Properties getProperties() {
-		return this.placeholderConfigurer.getProperties();
+	private Object resolverProperty(final PropertiesSnapshot snapshot, final String propertyName) {
+		return this.placeholderConfigurer.resolveProperty(snapshot, propertyName);
 	}
 }
@@ -0,0 +1,200 @@
+package com.morgan.design.properties.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.core.io.Resource;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Closeables;
+import com.morgan.design.properties.internal.PropertiesParser.PropertyHandler;
+
+/**
+ * The raw content of a resource together with its {@link ResourceFingerprint}, the content hash being computed while the bytes are read.
+ * <p>
+ * Files of at least {@link #CHANNEL_READ_THRESHOLD_BYTES} are read through their {@link FileChannel} straight into a heap buffer sized from the file, rather
+ * than copied from a stream through an intermediate buffer. Nothing is mapped, the file is closed once read and a file truncated whilst being read only ends
+ * the content early.
+ * 
+ * @author James Morgan
+ */
+public class ResourceContent {
+
+	public static final long CHANNEL_READ_THRESHOLD_BYTES = 4 * 1024 * 1024;
+
+	private static final HashFunction CONTENT_HASH = Hashing.murmur3_128();
+	private static final int BUFFER_SIZE = 8192;
+	private static final String XML_FILE_EXTENSION = ".xml";
+
+	private final Resource resource;
+	private final ByteBuffer content;
+	private final ResourceFingerprint fingerprint;
+
+	private ResourceContent(final Resource resource, final ByteBuffer content, final ResourceFingerprint fingerprint) {
+		this.resource = resource;
+		this.content = content;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * @param resource the resource to read
+	 * @return the content of the resource, fingerprinted
+	 * @throws IOException if the resource cannot be read
+	 */
+	public static ResourceContent read(final Resource resource) throws IOException {
+		// stat before reading, a change whilst reading then always differs from the recorded state
+		final ResourceFingerprint fileState = ResourceFingerprint.fileStateOf(resource);
+
+		final ByteBuffer content = fileState.getSize() >= CHANNEL_READ_THRESHOLD_BYTES
+				? readChannel(resource.getFile(), fileState.getSize())
+				: readFully(resource.getInputStream(), fileState.getSize());
+
+		return new ResourceContent(resource, content, new ResourceFingerprint(fileState.getSize(), fileState.getLastModified(), hash(content.duplicate())));
+	}
+
+	public ResourceFingerprint getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Streams each property of the content to the given handler, without building an intermediate {@link Properties} unless the resource is an XML properties
+	 * file
+	 * 
+	 * @param encoding the encoding of the content, null for the <code>.properties</code> default of ISO-8859-1
+	 * @param handler receives each property of the content
+	 * @throws IOException if the content is not valid
+	 */
+	public void parse(final String encoding, final PropertyHandler handler) throws IOException {
+		final String filename = this.resource.getFilename();
+		if (null != filename && filename.endsWith(XML_FILE_EXTENSION)) {
+			final Properties properties = new Properties();
+			properties.loadFromXML(new ByteArrayInputStream(toByteArray(this.content.duplicate())));
+			for (final String key : properties.stringPropertyNames()) {
+				handler.property(key, properties.getProperty(key));
+			}
+		}
+		else {
+			try {
+				if (null == encoding) {
+					PropertiesParser.parse(this.content.duplicate(), handler);
+				}
+				else {
+					PropertiesParser.parse(Charset.forName(encoding)
+						.decode(this.content.duplicate()), handler);
+				}
+			}
+			catch (final IllegalArgumentException e) {
+				throw new IOException("Unable to parse properties from " + this.resource, e);
+			}
+		}
+	}
+
+	/**
+	 * @param encoding the encoding of the content, null for the <code>.properties</code> default of ISO-8859-1
+	 * @return the properties defined by the content
+	 * @throws IOException if the content is not valid
+	 */
+	public Map<String, String> toProperties(final String encoding) throws IOException {
+		final Map<String, String> properties = Maps.newHashMap();
+		parse(encoding, new PropertyHandler() {
+			@Override
+			public void property(final String key, final CharSequence value) {
+				properties.put(key, value.toString());
+			}
+		});
+		return properties;
+	}
+
+	/**
+	 * Reads the file into a heap buffer of the expected size, only growing it should the file have grown since it was stat'd
+	 */
+	static ByteBuffer readChannel(final File file, final long expectedSize) throws IOException {
+		final FileInputStream inputStream = new FileInputStream(file);
+		try {
+			final FileChannel channel = inputStream.getChannel();
+			ByteBuffer content = ByteBuffer.allocate(checkedSize(file, expectedSize));
+			while (true) {
+				if (content.hasRemaining()) {
+					if (channel.read(content) == -1) {
+						break;
+					}
+				}
+				else if (channel.position() < channel.size()) {
+					// grown since the file was stat'd, read on to the end as a stream would
+					checkedSize(file, content.capacity() + 1L);
+					final long grownSize = content.capacity() + Math.max(channel.size() - channel.position(), BUFFER_SIZE);
+					final ByteBuffer grown = ByteBuffer.allocate((int) Math.min(grownSize, Integer.MAX_VALUE));
+					content.flip();
+					content = grown.put(content);
+				}
+				else {
+					break;
+				}
+			}
+			content.flip();
+			return content;
+		}
+		finally {
+			Closeables.closeQuietly(inputStream);
+		}
+	}
+
+	private static int checkedSize(final File file, final long size) throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Unable to read " + file + ", larger than " + Integer.MAX_VALUE + " bytes");
+		}
+		return (int) size;
+	}
+
+	private static ByteBuffer readFully(final InputStream inputStream, final long expectedSize) throws IOException {
+		final ByteArrayOutputStream content = new ByteArrayOutputStream(expectedSize > 0
+				? (int) expectedSize
+				: BUFFER_SIZE);
+		try {
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+		}
+		finally {
+			Closeables.closeQuietly(inputStream);
+		}
+		return ByteBuffer.wrap(content.toByteArray());
+	}
+
+	private static HashCode hash(final ByteBuffer content) {
+		final Hasher hasher = CONTENT_HASH.newHasher();
+		if (content.hasArray()) {
+			hasher.putBytes(content.array(), content.arrayOffset() + content.position(), content.remaining());
+		}
+		else {
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			while (content.hasRemaining()) {
+				final int length = Math.min(buffer.length, content.remaining());
+				content.get(buffer, 0, length);
+				hasher.putBytes(buffer, 0, length);
+			}
+		}
+		return hasher.hash();
+	}
+
+	private static byte[] toByteArray(final ByteBuffer content) {
+		final byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		return bytes;
+	}
+}
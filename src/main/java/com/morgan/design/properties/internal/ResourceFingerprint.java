@@ -0,0 +1,92 @@
+package com.morgan.design.properties.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Objects;
+import com.google.common.hash.HashCode;
+
+/**
+ * Cheap fingerprint of a resource's content used to skip reloading resources which have not changed. Resources are first compared by file size and last
+ * modified time, should either differ the hash of the content is compared.
+ * <p>
+ * File systems record modification times at a coarse granularity, a rewrite of the same size within the same tick is not visible from the file state alone.
+ * The file state of a fingerprint recorded shortly after the file was last modified is therefore never trusted and the content is always compared.
+ * 
+ * @author James Morgan
+ */
+public class ResourceFingerprint {
+
+	private static final long UNKNOWN = -1;
+
+	// covers the two second modification time granularity of the coarsest file systems
+	private static final long MODIFICATION_TIME_GRANULARITY_MILLIS = 2000;
+
+	private final long size;
+	private final long lastModified;
+	private final HashCode contentHash;
+	private final long recordedAt;
+
+	public ResourceFingerprint(final long size, final long lastModified, final HashCode contentHash) {
+		this.size = size;
+		this.lastModified = lastModified;
+		this.contentHash = contentHash;
+		this.recordedAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param resource the resource to stat
+	 * @return the size and last modified time of the file backing the resource, without a content hash
+	 */
+	public static ResourceFingerprint fileStateOf(final Resource resource) {
+		try {
+			final File file = resource.getFile();
+			return new ResourceFingerprint(file.length(), file.lastModified(), null);
+		}
+		catch (final IOException e) {
+			// not backed by a file, only the content can be compared
+			return new ResourceFingerprint(UNKNOWN, UNKNOWN, null);
+		}
+	}
+
+	/**
+	 * @return true if both fingerprints are of a file with a known and equal size and last modified time, and this fingerprint was recorded long enough after
+	 *         the last modification for the file state to be trusted
+	 */
+	public boolean hasSameFileState(final ResourceFingerprint other) {
+		return this.lastModified != UNKNOWN
+				&& this.lastModified + MODIFICATION_TIME_GRANULARITY_MILLIS < this.recordedAt
+				&& this.size == other.size
+				&& this.lastModified == other.lastModified;
+	}
+
+	/**
+	 * @return true if both fingerprints have an equal content hash
+	 */
+	public boolean hasSameContent(final ResourceFingerprint other) {
+		return null != this.contentHash && this.contentHash.equals(other.contentHash);
+	}
+
+	public long getSize() {
+		return this.size;
+	}
+
+	public long getLastModified() {
+		return this.lastModified;
+	}
+
+	public HashCode getContentHash() {
+		return this.contentHash;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("size", this.size)
+			.add("lastModified", this.lastModified)
+			.add("contentHash", this.contentHash)
+			.toString();
+	}
+}
@@ -0,0 +1,26 @@
+package com.morgan.design.properties.internal;
+
+/**
+ * What {@link ReloadablePropertyPostProcessor} does with a change for a bean whose queue of pending updates is full, only applies when updates are delivered
+ * on a subscriber executor. Each bean has a queue of its own, a full queue only affects the bean it belongs to.
+ * 
+ * @author James Morgan
+ */
+public enum SlowSubscriberPolicy {
+
+	/**
+	 * The update is dropped, the field keeps its current value until the property changes again
+	 */
+	DROP,
+
+	/**
+	 * An update of a field which is already pending is not queued again, the pending update applies the latest value of the property when it runs. Updates are
+	 * never dropped, the queue holds at most one update per subscribed field of the bean whatever its capacity.
+	 */
+	CONFLATE,
+
+	/**
+	 * The dispatching thread waits up to the subscriber block timeout for the queue to drain, dropping the update if it does not
+	 */
+	BLOCK
+}
@@ -0,0 +1,198 @@
+package com.morgan.design.properties.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.morgan.design.properties.bean.BeanPropertyHolder;
+import com.morgan.design.properties.metrics.ReloadMetrics;
+
+/**
+ * Delivers field updates to each subscribed bean through a bounded queue of its own, drained serially on the given {@link Executor}. The thread dispatching a
+ * change only enqueues the update, a bean slow to convert or write its fields delays its own updates but not those of other beans. Updates resolve the
+ * property against the latest snapshot when they run, not when they are queued. A full queue is handled according to the {@link SlowSubscriberPolicy} of the
+ * {@link ReloadablePropertyPostProcessor}, queues are dropped once their bean is garbage collected.
+ * 
+ * @author James Morgan
+ */
+class SubscriberDispatcher {
+
+	protected static Logger log = LoggerFactory.getLogger(SubscriberDispatcher.class);
+
+	// updates applied per task before a queue yields its thread to other beans
+	private static final int MAX_UPDATES_PER_RUN = 64;
+
+	private final ReloadablePropertyPostProcessor processor;
+	private final ReadablePropertySourcesPlaceholderConfigurer placeholderConfigurer;
+	private final Executor executor;
+
+	private final LoadingCache<Object, SubscriberQueue> queues = CacheBuilder.newBuilder()
+		.weakKeys()
+		.build(new CacheLoader<Object, SubscriberQueue>() {
+			@Override
+			public SubscriberQueue load(final Object bean) {
+				return new SubscriberQueue();
+			}
+		});
+
+	SubscriberDispatcher(final ReloadablePropertyPostProcessor processor, final ReadablePropertySourcesPlaceholderConfigurer placeholderConfigurer,
+			final Executor executor) {
+		this.processor = processor;
+		this.placeholderConfigurer = placeholderConfigurer;
+		this.executor = executor;
+	}
+
+	void dispatch(final BeanPropertyHolder holder) {
+		final Object bean = holder.getBean();
+		if (null == bean) {
+			// bean garbage collected since the change was dispatched
+			return;
+		}
+		this.queues.getUnchecked(bean)
+			.offer(holder);
+	}
+
+	private ReloadMetrics metrics() {
+		return this.placeholderConfigurer.getReloadMetrics();
+	}
+
+	/**
+	 * Pending updates of a single bean, at most one task per queue is submitted to the executor at any time
+	 */
+	private class SubscriberQueue implements Runnable {
+
+		private final Deque<BeanPropertyHolder> pending = new ArrayDeque<BeanPropertyHolder>();
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition notFull = this.lock.newCondition();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		void offer(final BeanPropertyHolder holder) {
+			final SlowSubscriberPolicy policy = SubscriberDispatcher.this.processor.getSlowSubscriberPolicy();
+			final int capacity = SubscriberDispatcher.this.processor.getSubscriberQueueCapacity();
+			this.lock.lock();
+			try {
+				if (policy == SlowSubscriberPolicy.CONFLATE) {
+					// never dropped, each field is pending at most once so the queue is bounded by the fields of the bean rather than its capacity
+					if (this.pending.contains(holder)) {
+						return;
+					}
+				}
+				else if (this.pending.size() >= capacity && !(policy == SlowSubscriberPolicy.BLOCK && awaitCapacity(capacity))) {
+					metrics().subscriberUpdateDropped();
+					log.warn("Dropped update of property [{}] on field [{}], {} updates of the bean are pending", new Object[] { holder.getPropertyName(),
+							holder.getField(), this.pending.size() });
+					return;
+				}
+				this.pending.add(holder);
+			}
+			finally {
+				this.lock.unlock();
+			}
+			schedule();
+		}
+
+		// called holding the lock, false if the queue is still full once the block timeout has passed
+		private boolean awaitCapacity(final int capacity) {
+			long remainingNanos = TimeUnit.MILLISECONDS.toNanos(SubscriberDispatcher.this.processor.getSubscriberBlockTimeoutMillis());
+			try {
+				while (this.pending.size() >= capacity) {
+					if (remainingNanos <= 0) {
+						return false;
+					}
+					remainingNanos = this.notFull.awaitNanos(remainingNanos);
+				}
+				return true;
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread()
+					.interrupt();
+				return false;
+			}
+		}
+
+		private BeanPropertyHolder poll() {
+			this.lock.lock();
+			try {
+				final BeanPropertyHolder holder = this.pending.poll();
+				this.notFull.signal();
+				return holder;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private int clear() {
+			this.lock.lock();
+			try {
+				final int cleared = this.pending.size();
+				this.pending.clear();
+				this.notFull.signalAll();
+				return cleared;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private boolean isEmpty() {
+			this.lock.lock();
+			try {
+				return this.pending.isEmpty();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					SubscriberDispatcher.this.executor.execute(this);
+				}
+				catch (final RejectedExecutionException e) {
+					// nothing would run the pending updates until the next change of the bean, they are dropped rather than left stale unnoticed
+					final int dropped = clear();
+					this.scheduled.set(false);
+					for (int i = 0; i < dropped; i++) {
+						metrics().subscriberUpdateDropped();
+					}
+					log.error("Executor rejected field updates, dropped {} pending updates of the bean", dropped, e);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			int fieldsWritten = 0;
+			try {
+				BeanPropertyHolder holder;
+				for (int i = 0; i < MAX_UPDATES_PER_RUN && (holder = poll()) != null; i++) {
+					if (SubscriberDispatcher.this.processor.applyUpdate(holder, SubscriberDispatcher.this.placeholderConfigurer.getSnapshot())) {
+						fieldsWritten++;
+					}
+				}
+			}
+			finally {
+				metrics().fieldsWritten(System.nanoTime() - start, fieldsWritten);
+				this.scheduled.set(false);
+				// an update queued after the last poll may have seen the queue as still scheduled
+				if (!isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.morgan.design.properties.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * How changes to a resource are detected, either through the file system's {@link java.nio.file.WatchService} or by polling the size and last modified time
+ * of the file
+ * 
+ * @author James Morgan
+ */
+public enum WatchStrategy {
+
+	/**
+	 * Register the parent directory of the resource with a {@link java.nio.file.WatchService}, see {@link PropertiesWatcher}
+	 */
+	WATCH_SERVICE {
+		@Override
+		boolean polls(final Resource resource) {
+			return false;
+		}
+	},
+
+	/**
+	 * Poll the file with an adaptive interval, see {@link PollingPropertiesWatcher}
+	 */
+	POLLING {
+		@Override
+		boolean polls(final Resource resource) {
+			return true;
+		}
+	},
+
+	/**
+	 * Poll files on network, virtual and container overlay file systems, where a {@link java.nio.file.WatchService} may not report changes made by other
+	 * hosts or through another layer, otherwise use a {@link java.nio.file.WatchService}
+	 */
+	AUTO {
+		@Override
+		boolean polls(final Resource resource) {
+			final String fileStoreType = fileStoreTypeOf(resource);
+			if (null != fileStoreType && isPolledFileStoreType(fileStoreType)) {
+				log.info("Polling resource [{}] on file system of type [{}]", resource, fileStoreType);
+				return true;
+			}
+			return false;
+		}
+	};
+
+	protected static Logger log = LoggerFactory.getLogger(WatchStrategy.class);
+
+	// prefixes of file store types whose changes may not be reported to a WatchService, overlay covers changes to a lower layer or bind mount
+	private static final ImmutableSet<String> POLLING_FILE_STORE_TYPES = ImmutableSet.of("nfs", "cifs", "smb", "fuse", "9p", "vboxsf", "afs", "ceph",
+			"glusterfs", "lustre", "overlay");
+
+	/**
+	 * @return true if changes to the given resource should be detected by polling
+	 */
+	abstract boolean polls(Resource resource);
+
+	/**
+	 * @param fileStoreType the lower case type of a file store
+	 * @return true if {@link #AUTO} polls files on file stores of the given type
+	 */
+	static boolean isPolledFileStoreType(final String fileStoreType) {
+		for (final String pollingFileStoreType : POLLING_FILE_STORE_TYPES) {
+			if (fileStoreType.startsWith(pollingFileStoreType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String fileStoreTypeOf(final Resource resource) {
+		try {
+			final Path path = resource.getFile()
+				.toPath();
+			return Files.getFileStore(path)
+				.type()
+				.toLowerCase(Locale.ENGLISH);
+		}
+		catch (final IOException e) {
+			// not backed by a file or not accessible, left to the watch service to report
+			return null;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.morgan.design.properties.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of non negative values with power of two buckets. Recording a value updates a fixed set of atomic counters and never allocates, so
+ * values can be recorded on every reload without producing garbage. Percentiles are reported as the upper bound of the bucket holding them, i.e. to within a
+ * factor of two.
+ * 
+ * @author James Morgan
+ */
+public class Histogram {
+
+	// bucket 0 holds zero, bucket n holds values in [2^(n-1), 2^n - 1]
+	private static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param value the value to record, negative values are recorded as zero
+	 */
+	public void record(final long value) {
+		final long recorded = Math.max(0, value);
+		this.buckets.incrementAndGet(bucketOf(recorded));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(recorded);
+		long currentMax;
+		while (recorded > (currentMax = this.max.get())) {
+			if (this.max.compareAndSet(currentMax, recorded)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the values recorded so far, values recorded concurrently may be partially included
+	 */
+	public HistogramSnapshot snapshot() {
+		final long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		final long recordedMax = this.max.get();
+		return new HistogramSnapshot(total, 0 == total
+				? 0
+				: (double) this.sum.get() / total, percentile(counts, total, 0.5, recordedMax), percentile(counts, total, 0.9, recordedMax), percentile(
+				counts, total, 0.99, recordedMax), recordedMax);
+	}
+
+	private static int bucketOf(final long value) {
+		return Long.SIZE - Long.numberOfLeadingZeros(value);
+	}
+
+	private static long percentile(final long[] counts, final long total, final double percentile, final long max) {
+		if (0 == total) {
+			return 0;
+		}
+		final long rank = (long) Math.ceil(total * percentile);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	private static long upperBoundOf(final int bucket) {
+		return 0 == bucket
+				? 0
+				: (1L << bucket) - 1;
+	}
+}
@@ -0,0 +1,66 @@
+package com.morgan.design.properties.metrics;
+
+import java.beans.ConstructorProperties;
+
+import com.google.common.base.Objects;
+
+/**
+ * Summary of the values recorded by a {@link Histogram}
+ * 
+ * @author James Morgan
+ */
+public class HistogramSnapshot {
+
+	private final long count;
+	private final double mean;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	private final long max;
+
+	@ConstructorProperties({ "count", "mean", "p50", "p90", "p99", "max" })
+	public HistogramSnapshot(final long count, final double mean, final long p50, final long p90, final long p99, final long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.max = max;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getMean() {
+		return this.mean;
+	}
+
+	public long getP50() {
+		return this.p50;
+	}
+
+	public long getP90() {
+		return this.p90;
+	}
+
+	public long getP99() {
+		return this.p99;
+	}
+
+	public long getMax() {
+		return this.max;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("count", this.count)
+			.add("mean", this.mean)
+			.add("p50", this.p50)
+			.add("p90", this.p90)
+			.add("p99", this.p99)
+			.add("max", this.max)
+			.toString();
+	}
+}
@@ -0,0 +1,252 @@
+package com.morgan.design.properties.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * <p>
+ * Records how long reloads take, how many properties and fields they change and whether the resource watcher is still running. Every recording method only
+ * updates atomic counters and {@link Histogram}s, nothing is allocated once a resource has been reloaded for the first time, summaries are only built when
+ * read through {@link ReloadMetricsMXBean}.
+ * </p>
+ * <p>
+ * Exporting the instance used by the ReadablePropertySourcesPlaceholderConfigurer, e.g. through Spring's MBeanExporter, makes the metrics available over
+ * JMX.
+ * </p>
+ * 
+ * @author James Morgan
+ */
+public class ReloadMetrics implements ReloadMetricsMXBean {
+
+	private final ConcurrentMap<Resource, ResourceMetrics> resourceMetrics = Maps.newConcurrentMap();
+
+	private final Histogram fieldWriteLatency = new Histogram();
+	private final AtomicLong fieldWrites = new AtomicLong();
+	private final AtomicLong conversionFailures = new AtomicLong();
+	private final AtomicLong failedSubscriberUpdates = new AtomicLong();
+	private final AtomicLong slowSubscriberUpdates = new AtomicLong();
+	private final AtomicLong droppedSubscriberUpdates = new AtomicLong();
+
+	private volatile Supplier<Map<String, Integer>> subscriberCounts;
+
+	private final AtomicInteger runningWatchers = new AtomicInteger();
+	private volatile long lastWatchEventTime;
+	private volatile String watcherFailure;
+
+	/**
+	 * @param resource the resource reloaded
+	 * @param parseNanos time taken reading and parsing the resource
+	 * @param diffNanos time taken merging the changes into a new snapshot
+	 * @param dispatchNanos time taken posting the change events
+	 * @param changedProperties the number of properties changed by the reload
+	 */
+	public void reloaded(final Resource resource, final long parseNanos, final long diffNanos, final long dispatchNanos, final int changedProperties) {
+		final ResourceMetrics metrics = metricsOf(resource);
+		metrics.reloads.incrementAndGet();
+		metrics.lastReloadTime = System.currentTimeMillis();
+		metrics.parseLatency.record(TimeUnit.NANOSECONDS.toMicros(parseNanos));
+		metrics.diffLatency.record(TimeUnit.NANOSECONDS.toMicros(diffNanos));
+		metrics.dispatchLatency.record(TimeUnit.NANOSECONDS.toMicros(dispatchNanos));
+		metrics.changedProperties.record(changedProperties);
+	}
+
+	/**
+	 * @param resource the resource whose change was ignored as its content was unchanged
+	 */
+	public void reloadSkipped(final Resource resource) {
+		metricsOf(resource).skippedReloads.incrementAndGet();
+	}
+
+	/**
+	 * @param resource the resource which could not be read or parsed
+	 */
+	public void reloadFailed(final Resource resource) {
+		metricsOf(resource).failedReloads.incrementAndGet();
+	}
+
+	/**
+	 * @param nanos time taken applying a change to the subscribed fields
+	 * @param fields the number of fields written
+	 */
+	public void fieldsWritten(final long nanos, final int fields) {
+		this.fieldWriteLatency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+		this.fieldWrites.addAndGet(fields);
+	}
+
+	public void conversionFailed() {
+		this.conversionFailures.incrementAndGet();
+	}
+
+	public void subscriberUpdateFailed() {
+		this.failedSubscriberUpdates.incrementAndGet();
+	}
+
+	public void subscriberUpdateSlow() {
+		this.slowSubscriberUpdates.incrementAndGet();
+	}
+
+	public void subscriberUpdateDropped() {
+		this.droppedSubscriberUpdates.incrementAndGet();
+	}
+
+	/**
+	 * @param subscriberCounts supplier of the number of fields subscribed to each property, only called when the counts are read
+	 */
+	public void setSubscriberCounts(final Supplier<Map<String, Integer>> subscriberCounts) {
+		this.subscriberCounts = subscriberCounts;
+	}
+
+	public void watcherStarted() {
+		this.runningWatchers.incrementAndGet();
+	}
+
+	public void watchEventReceived() {
+		this.lastWatchEventTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param failure the exception which stopped the watcher, null if it stopped normally
+	 */
+	public void watcherStopped(final Throwable failure) {
+		this.runningWatchers.decrementAndGet();
+		if (null != failure) {
+			this.watcherFailure = Throwables.getStackTraceAsString(failure);
+		}
+	}
+
+	@Override
+	public Map<String, ResourceReloadStatistics> getResourceStatistics() {
+		final Map<String, ResourceReloadStatistics> statistics = Maps.newTreeMap();
+		for (final Map.Entry<Resource, ResourceMetrics> entry : this.resourceMetrics.entrySet()) {
+			final String resource = entry.getKey()
+				.getDescription();
+			statistics.put(resource, entry.getValue()
+				.statistics(resource));
+		}
+		return statistics;
+	}
+
+	@Override
+	public long getReloadCount() {
+		long reloads = 0;
+		for (final ResourceMetrics metrics : this.resourceMetrics.values()) {
+			reloads += metrics.reloads.get();
+		}
+		return reloads;
+	}
+
+	@Override
+	public long getSkippedReloadCount() {
+		long skippedReloads = 0;
+		for (final ResourceMetrics metrics : this.resourceMetrics.values()) {
+			skippedReloads += metrics.skippedReloads.get();
+		}
+		return skippedReloads;
+	}
+
+	@Override
+	public long getFailedReloadCount() {
+		long failedReloads = 0;
+		for (final ResourceMetrics metrics : this.resourceMetrics.values()) {
+			failedReloads += metrics.failedReloads.get();
+		}
+		return failedReloads;
+	}
+
+	@Override
+	public HistogramSnapshot getFieldWriteLatency() {
+		return this.fieldWriteLatency.snapshot();
+	}
+
+	@Override
+	public long getFieldWriteCount() {
+		return this.fieldWrites.get();
+	}
+
+	@Override
+	public long getConversionFailureCount() {
+		return this.conversionFailures.get();
+	}
+
+	@Override
+	public long getFailedSubscriberUpdateCount() {
+		return this.failedSubscriberUpdates.get();
+	}
+
+	@Override
+	public long getSlowSubscriberUpdateCount() {
+		return this.slowSubscriberUpdates.get();
+	}
+
+	@Override
+	public long getDroppedSubscriberUpdateCount() {
+		return this.droppedSubscriberUpdates.get();
+	}
+
+	@Override
+	public Map<String, Integer> getSubscriberCounts() {
+		final Supplier<Map<String, Integer>> counts = this.subscriberCounts;
+		return null == counts
+				? Collections.<String, Integer> emptyMap()
+				: ImmutableMap.copyOf(counts.get());
+	}
+
+	@Override
+	public boolean isWatcherAlive() {
+		return this.runningWatchers.get() > 0;
+	}
+
+	@Override
+	public long getLastWatchEventTime() {
+		return this.lastWatchEventTime;
+	}
+
+	@Override
+	public String getWatcherFailure() {
+		return this.watcherFailure;
+	}
+
+	private ResourceMetrics metricsOf(final Resource resource) {
+		final ResourceMetrics metrics = this.resourceMetrics.get(resource);
+		if (null != metrics) {
+			return metrics;
+		}
+		final ResourceMetrics newMetrics = new ResourceMetrics();
+		final ResourceMetrics existing = this.resourceMetrics.putIfAbsent(resource, newMetrics);
+		return null == existing
+				? newMetrics
+				: existing;
+	}
+
+	/**
+	 * Counters and histograms of a single resource
+	 */
+	private static class ResourceMetrics {
+
+		final AtomicLong reloads = new AtomicLong();
+		final AtomicLong skippedReloads = new AtomicLong();
+		final AtomicLong failedReloads = new AtomicLong();
+		volatile long lastReloadTime;
+
+		final Histogram parseLatency = new Histogram();
+		final Histogram diffLatency = new Histogram();
+		final Histogram dispatchLatency = new Histogram();
+		final Histogram changedProperties = new Histogram();
+
+		ResourceReloadStatistics statistics(final String resource) {
+			return new ResourceReloadStatistics(resource, this.reloads.get(), this.skippedReloads.get(), this.failedReloads.get(), this.lastReloadTime,
+					this.parseLatency.snapshot(), this.diffLatency.snapshot(), this.dispatchLatency.snapshot(), this.changedProperties.snapshot());
+		}
+	}
+}
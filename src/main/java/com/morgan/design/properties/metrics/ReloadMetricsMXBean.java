@@ -0,0 +1,81 @@
+package com.morgan.design.properties.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ReloadMetrics}, latencies are in microseconds
+ * 
+ * @author James Morgan
+ */
+public interface ReloadMetricsMXBean {
+
+	/**
+	 * @return reload statistics keyed by resource description
+	 */
+	Map<String, ResourceReloadStatistics> getResourceStatistics();
+
+	/**
+	 * @return the number of reloads which parsed a resource, across all resources
+	 */
+	long getReloadCount();
+
+	/**
+	 * @return the number of change events ignored as the content of the resource was unchanged, across all resources
+	 */
+	long getSkippedReloadCount();
+
+	/**
+	 * @return the number of reloads which failed to read or parse a resource, across all resources
+	 */
+	long getFailedReloadCount();
+
+	/**
+	 * @return time taken applying the changes of a reload to the subscribed fields
+	 */
+	HistogramSnapshot getFieldWriteLatency();
+
+	/**
+	 * @return the number of subscribed fields written since start up
+	 */
+	long getFieldWriteCount();
+
+	/**
+	 * @return the number of changed values which could not be converted to the type of a subscribed field
+	 */
+	long getConversionFailureCount();
+
+	/**
+	 * @return the number of field updates which failed, without stopping the updates of other subscribed fields
+	 */
+	long getFailedSubscriberUpdateCount();
+
+	/**
+	 * @return the number of field updates which took longer than the slow update threshold
+	 */
+	long getSlowSubscriberUpdateCount();
+
+	/**
+	 * @return the number of field updates dropped as the queue of the subscribed bean was full
+	 */
+	long getDroppedSubscriberUpdateCount();
+
+	/**
+	 * @return the number of bean fields subscribed to each property
+	 */
+	Map<String, Integer> getSubscriberCounts();
+
+	/**
+	 * @return true while any resource watching or polling thread is running
+	 */
+	boolean isWatcherAlive();
+
+	/**
+	 * @return the time in milliseconds the watcher last received a file system event, zero if none received
+	 */
+	long getLastWatchEventTime();
+
+	/**
+	 * @return the last exception which stopped a watcher, null if no watcher has stopped on an exception
+	 */
+	String getWatcherFailure();
+}
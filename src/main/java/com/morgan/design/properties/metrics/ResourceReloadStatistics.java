@@ -0,0 +1,109 @@
+package com.morgan.design.properties.metrics;
+
+import java.beans.ConstructorProperties;
+
+import com.google.common.base.Objects;
+
+/**
+ * Reloads of a single resource, phase latencies are in microseconds
+ * 
+ * @author James Morgan
+ */
+public class ResourceReloadStatistics {
+
+	private final String resource;
+	private final long reloadCount;
+	private final long skippedReloadCount;
+	private final long failedReloadCount;
+	private final long lastReloadTime;
+	private final HistogramSnapshot parseLatency;
+	private final HistogramSnapshot diffLatency;
+	private final HistogramSnapshot dispatchLatency;
+	private final HistogramSnapshot changedProperties;
+
+	@ConstructorProperties({ "resource", "reloadCount", "skippedReloadCount", "failedReloadCount", "lastReloadTime", "parseLatency", "diffLatency",
+			"dispatchLatency", "changedProperties" })
+	public ResourceReloadStatistics(final String resource, final long reloadCount, final long skippedReloadCount, final long failedReloadCount,
+			final long lastReloadTime, final HistogramSnapshot parseLatency, final HistogramSnapshot diffLatency, final HistogramSnapshot dispatchLatency,
+			final HistogramSnapshot changedProperties) {
+		this.resource = resource;
+		this.reloadCount = reloadCount;
+		this.skippedReloadCount = skippedReloadCount;
+		this.failedReloadCount = failedReloadCount;
+		this.lastReloadTime = lastReloadTime;
+		this.parseLatency = parseLatency;
+		this.diffLatency = diffLatency;
+		this.dispatchLatency = dispatchLatency;
+		this.changedProperties = changedProperties;
+	}
+
+	public String getResource() {
+		return this.resource;
+	}
+
+	/**
+	 * @return the number of reloads which parsed the resource
+	 */
+	public long getReloadCount() {
+		return this.reloadCount;
+	}
+
+	/**
+	 * @return the number of change events ignored as the content of the resource was unchanged
+	 */
+	public long getSkippedReloadCount() {
+		return this.skippedReloadCount;
+	}
+
+	/**
+	 * @return the number of reloads which failed to read or parse the resource
+	 */
+	public long getFailedReloadCount() {
+		return this.failedReloadCount;
+	}
+
+	/**
+	 * @return the time in milliseconds of the last reload which parsed the resource, zero if the resource has not been reloaded
+	 */
+	public long getLastReloadTime() {
+		return this.lastReloadTime;
+	}
+
+	/**
+	 * @return time taken reading and parsing the resource, including diffing each property against its previous value
+	 */
+	public HistogramSnapshot getParseLatency() {
+		return this.parseLatency;
+	}
+
+	/**
+	 * @return time taken merging the changes into a new snapshot and finding the changed dependents
+	 */
+	public HistogramSnapshot getDiffLatency() {
+		return this.diffLatency;
+	}
+
+	/**
+	 * @return time taken posting the change events, including updating the subscribed fields when events are dispatched synchronously
+	 */
+	public HistogramSnapshot getDispatchLatency() {
+		return this.dispatchLatency;
+	}
+
+	/**
+	 * @return the number of properties changed by each reload
+	 */
+	public HistogramSnapshot getChangedProperties() {
+		return this.changedProperties;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("resource", this.resource)
+			.add("reloadCount", this.reloadCount)
+			.add("skippedReloadCount", this.skippedReloadCount)
+			.add("failedReloadCount", this.failedReloadCount)
+			.toString();
+	}
+}
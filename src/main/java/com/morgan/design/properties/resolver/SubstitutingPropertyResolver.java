@@ -29,19 +29,19 @@ public class SubstitutingPropertyResolver implements PropertyResolver {
 				? stringProperty.substring(2, stringProperty.length() - 1)
 				: stringProperty;
 
-		log.info("Property Resolved from [{}] to [{}]", new Object[] { property, resolvedProperty });
+		log.debug("Property Resolved from [{}] to [{}]", property, resolvedProperty);
 		return resolvedProperty;
 	}
 
 	@Override
 	public boolean requiresFurtherResoltuion(final Object property) {
 		if (null == property) {
-			log.info("Property is null");
+			log.debug("Property is null");
 			return false;
 		}
 		final boolean propertyRequiresSubstitution = propertyRequiresSubstitution(property.toString());
 		if (propertyRequiresSubstitution) {
-			log.info("Further resolution required for property value [{}]", new Object[] { property });
+			log.debug("Further resolution required for property value [{}]", property);
 		}
 		return propertyRequiresSubstitution;
 	}
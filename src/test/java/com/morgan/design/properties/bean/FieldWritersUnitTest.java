@@ -0,0 +1,133 @@
+package com.morgan.design.properties.bean;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Field;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.ReflectionUtils;
+
+import com.morgan.design.properties.ReloadableBoolean;
+import com.morgan.design.properties.ReloadableDouble;
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableLong;
+import com.morgan.design.properties.ReloadableValue;
+
+public class FieldWritersUnitTest {
+
+	private TestObject bean;
+
+	@Before
+	public void setUp() {
+		this.bean = new TestObject();
+	}
+
+	@Test
+	public void shouldWritePrimitiveFields() throws NoSuchFieldException {
+		writer("intValue").write(this.bean, 42);
+		writer("longValue").write(this.bean, 12345L);
+		writer("booleanValue").write(this.bean, true);
+		writer("doubleValue").write(this.bean, 12345.67);
+
+		assertThat(this.bean.intValue, is(42));
+		assertThat(this.bean.longValue, is(12345L));
+		assertThat(this.bean.booleanValue, is(true));
+		assertThat(this.bean.doubleValue, is(12345.67));
+	}
+
+	@Test
+	public void shouldWriteOtherPrimitiveAndObjectFields() throws NoSuchFieldException {
+		writer("shortValue").write(this.bean, (short) 7);
+		writer("stringValue").write(this.bean, "Injected String Value");
+
+		assertThat(this.bean.shortValue, is((short) 7));
+		assertThat(this.bean.stringValue, is("Injected String Value"));
+	}
+
+	@Test
+	public void shouldWriteFieldsReflectively() throws NoSuchFieldException {
+		FieldWriters.reflective(accessibleField("intValue"))
+			.write(this.bean, 42);
+		FieldWriters.reflective(accessibleField("stringValue"))
+			.write(this.bean, "Injected String Value");
+
+		assertThat(this.bean.intValue, is(42));
+		assertThat(this.bean.stringValue, is("Injected String Value"));
+	}
+
+	@Test
+	public void shouldSetValueOfReloadableValueHandle() throws NoSuchFieldException {
+		final ReloadableValue<String> handle = this.bean.finalHandle;
+		writer("finalHandle").write(this.bean, "Injected String Value");
+		writer("finalHandle").write(this.bean, "Reloaded String Value");
+
+		assertThat(this.bean.finalHandle, is(sameInstance(handle)));
+		assertThat(this.bean.finalHandle.get(), is("Reloaded String Value"));
+	}
+
+	@Test
+	public void shouldAssignHandleToNullReloadableValueField() throws NoSuchFieldException {
+		writer("handle").write(this.bean, 42);
+
+		assertThat(this.bean.handle.get(), is(42));
+	}
+
+	@Test
+	public void shouldSetValueOfPrimitiveHandles() throws NoSuchFieldException {
+		final ReloadableInt intHandle = this.bean.intHandle;
+		writer("intHandle").write(this.bean, 42);
+		writer("longHandle").write(this.bean, 12345L);
+		writer("booleanHandle").write(this.bean, true);
+		writer("doubleHandle").write(this.bean, 12345.67);
+
+		assertThat(this.bean.intHandle, is(sameInstance(intHandle)));
+		assertThat(this.bean.intHandle.getAsInt(), is(42));
+		assertThat(this.bean.longHandle.getAsLong(), is(12345L));
+		assertThat(this.bean.booleanHandle.getAsBoolean(), is(true));
+		assertThat(this.bean.doubleHandle.getAsDouble(), is(12345.67));
+	}
+
+	@Test
+	public void shouldWriteStaticFields() throws NoSuchFieldException {
+		writer("staticStringValue").write(this.bean, "static");
+		assertThat(TestObject.staticStringValue, is("static"));
+
+		writer("staticIntValue").write(null, 42);
+		assertThat(TestObject.staticIntValue, is(42));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void shouldRejectValueOfWrongType() throws NoSuchFieldException {
+		writer("intValue").write(this.bean, "not an int");
+	}
+
+	private FieldWriter writer(final String fieldName) throws NoSuchFieldException {
+		return FieldWriters.forField(accessibleField(fieldName));
+	}
+
+	private Field accessibleField(final String fieldName) throws NoSuchFieldException {
+		final Field field = TestObject.class.getDeclaredField(fieldName);
+		ReflectionUtils.makeAccessible(field);
+		return field;
+	}
+
+	static class TestObject {
+		private static String staticStringValue;
+		private static int staticIntValue;
+		private int intValue;
+		private long longValue;
+		private boolean booleanValue;
+		private double doubleValue;
+		private short shortValue;
+		private String stringValue;
+		private final ReloadableValue<String> finalHandle = new ReloadableValue<String>();
+		private ReloadableValue<Integer> handle;
+		private final ReloadableInt intHandle = new ReloadableInt();
+		private ReloadableLong longHandle;
+		private final ReloadableBoolean booleanHandle = ReloadableBoolean.withDefault(false);
+		private final ReloadableDouble doubleHandle = new ReloadableDouble();
+	}
+}
@@ -1,20 +1,39 @@
 package com.morgan.design.properties.conversion;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import java.lang.reflect.Field;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
 import org.joda.time.Period;
 import org.junit.Test;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.base.Functions;
+import com.google.common.cache.CacheStats;
+import com.morgan.design.properties.ReloadableBoolean;
+import com.morgan.design.properties.ReloadableDouble;
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableLong;
+import com.morgan.design.properties.ReloadableValue;
 
 @ContextConfiguration(locations = {"classpath:/spring/spring-reloadablePropertyPostProcessorIntTest.xml"})
 public class DefaultPropertyConversionServiceUnitTest extends AbstractJUnit4SpringContextTests {
@@ -61,13 +80,135 @@ public class DefaultPropertyConversionServiceUnitTest extends AbstractJUnit4Spri
 		assertThat((Date) convertPropertyForField("dateValue", "9-4-2017"), is(expected));
 	}
 	
+	@Test
+	public void shouldMemoizeConversionToImmutableType() throws NoSuchFieldException, SecurityException {
+		final long hits = conversionCacheStats().hitCount();
+		final Period first = (Period) convertPropertyForField("period", "96:00:00");
+		final Period second = (Period) convertPropertyForField("period", "96:00:00");
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(conversionCacheStats().hitCount(), is(hits + 1));
+	}
+
+	@Test
+	public void shouldMemoizeConversionToNull() throws NoSuchFieldException, SecurityException {
+		final long hits = conversionCacheStats().hitCount();
+		assertThat(convertPropertyForField("localTime", ""), is(nullValue()));
+		assertThat(convertPropertyForField("localTime", ""), is(nullValue()));
+
+		assertThat(conversionCacheStats().hitCount(), is(hits + 1));
+	}
+
+	@Test
+	public void shouldNotShareConvertedMutableValues() throws NoSuchFieldException, SecurityException {
+		final Date first = (Date) convertPropertyForField("dateValue", "10-4-2017");
+		final Date second = (Date) convertPropertyForField("dateValue", "10-4-2017");
+
+		assertThat(second, is(first));
+		assertThat(second, is(not(sameInstance(first))));
+	}
+
+	@Test
+	public void shouldShareCachedConversionsBetweenFieldsOfSameType() throws NoSuchFieldException, SecurityException {
+		final long hits = conversionCacheStats().hitCount();
+		final Object first = resolveConverter("period").convert("120:00:00");
+		final Object second = resolveConverter("otherPeriod").convert("120:00:00");
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(conversionCacheStats().hitCount(), is(hits + 1));
+	}
+
+	@Test
+	public void shouldConvertGenericType() throws NoSuchFieldException, SecurityException {
+		assertThat(resolveConverter("integers").convert("7"), is((Object) Arrays.asList(7)));
+	}
+
+	@Test
+	public void shouldConvertGenericTypeUsingEachField() throws NoSuchFieldException, SecurityException {
+		final List<Field> convertedFields = new ArrayList<Field>();
+		final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setTypeConverter(new SimpleTypeConverter() {
+			@Override
+			public <T> T convertIfNecessary(final Object value, final Class<T> requiredType, final Field field) {
+				convertedFields.add(field);
+				return super.convertIfNecessary(value, requiredType, field);
+			}
+		});
+		final DefaultPropertyConversionService service = new DefaultPropertyConversionService();
+		ReflectionTestUtils.setField(service, "configurableBeanFactory", beanFactory);
+		service.init();
+
+		final Field integers = TestObject.class.getDeclaredField("integers");
+		final Field otherIntegers = TestObject.class.getDeclaredField("otherIntegers");
+		service.resolveConverter(integers)
+			.convert("7");
+		service.resolveConverter(otherIntegers)
+			.convert("7");
+
+		assertThat(convertedFields, is(Arrays.asList(integers, otherIntegers)));
+	}
+
+	@Test
+	public void shouldConvertToTypeArgumentOfReloadableValue() throws NoSuchFieldException, SecurityException {
+		assertThat(resolveConverter("reloadableInteger").convert("7"), is((Object) 7));
+		assertThat(resolveConverter("reloadablePeriod").convert("24:00:00"), is((Object) new Period(24, 0, 0, 0)));
+	}
+
+	@Test
+	public void shouldParsePrimitiveHandleValues() throws NoSuchFieldException, SecurityException {
+		assertThat(resolveConverter("reloadableInt").convert(" 0x10 "), is((Object) 16));
+		assertThat(resolveConverter("reloadableLong").convert("12345678901"), is((Object) 12345678901L));
+		assertThat(resolveConverter("reloadableBoolean").convert("yes"), is((Object) true));
+		assertThat(resolveConverter("reloadableDouble").convert("1.5"), is((Object) 1.5));
+	}
+
+	@Test(expected = BeanInitializationException.class)
+	public void shouldRejectInvalidPrimitiveHandleValue() throws NoSuchFieldException, SecurityException {
+		resolveConverter("reloadableBoolean").convert("maybe");
+	}
+
+	@Test
+	public void shouldRegisterConvertersPerInstance() throws NoSuchFieldException, SecurityException {
+		final DefaultPropertyConversionService other = new DefaultPropertyConversionService();
+		other.registerConverter(Period.class, Functions.constant(Period.ZERO));
+
+		assertThat(other.resolveConverter(TestObject.class.getDeclaredField("period"))
+			.convert("24:00:00"), is((Object) Period.ZERO));
+		assertThat(resolveConverter("period").convert("24:00:00"), is((Object) new Period(24, 0, 0, 0)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldRejectConverterRegisteredOnceConvertersResolved() throws NoSuchFieldException, SecurityException {
+		final DefaultPropertyConversionService other = new DefaultPropertyConversionService();
+		other.resolveConverter(TestObject.class.getDeclaredField("period"));
+
+		other.registerConverter(Period.class, Functions.constant(Period.ZERO));
+	}
+
 	static class TestObject {
 		Period period = new Period();
+		Period otherPeriod = new Period();
+		List<Integer> integers;
+		List<Integer> otherIntegers;
 		LocalTime localTime = new LocalTime();
 		LocalDate localDate = new LocalDate();
 		LocalDateTime localDateTime = new LocalDateTime();
 		Date dateValue = new Date();
 		boolean booleanValue;
+		final ReloadableValue<Integer> reloadableInteger = new ReloadableValue<Integer>();
+		final ReloadableValue<Period> reloadablePeriod = new ReloadableValue<Period>();
+		final ReloadableInt reloadableInt = new ReloadableInt();
+		final ReloadableLong reloadableLong = new ReloadableLong();
+		final ReloadableBoolean reloadableBoolean = new ReloadableBoolean();
+		final ReloadableDouble reloadableDouble = new ReloadableDouble();
+	}
+
+	private CacheStats conversionCacheStats() {
+		return ((DefaultPropertyConversionService) this.conversionService).getConversionCacheStats();
+	}
+
+	private PropertyConverter resolveConverter(final String fieldName) throws NoSuchFieldException, SecurityException {
+		return this.conversionService.resolveConverter(TestObject.class.getDeclaredField(fieldName));
 	}
 
 	private Object convertPropertyForField(final String fieldName, final Object value) throws NoSuchFieldException, SecurityException {
@@ -0,0 +1,238 @@
+package com.morgan.design.properties.event;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
+import com.morgan.design.properties.bean.PropertyModifiedEvent;
+import com.morgan.design.properties.internal.ReloadablePropertyPostProcessor;
+
+public class ExecutorPropertyChangedEventNotifierUnitTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldDeliverChangesOfSamePropertyInOrder() throws InterruptedException {
+		final int changes = 1000;
+		final RecordingNotifier delegate = new RecordingNotifier(changes);
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 4, 8);
+
+		for (int i = 0; i < changes; i++) {
+			notifier.post(new PropertyModifiedEvent("property", i, i + 1));
+		}
+
+		assertThat(delegate.delivered.await(5, TimeUnit.SECONDS), is(true));
+		for (int i = 0; i < changes; i++) {
+			assertThat(delegate.events.get(i)
+				.getOldValue(), is((Object) i));
+		}
+	}
+
+	@Test
+	public void shouldSplitBatchByLane() throws InterruptedException {
+		final RecordingNotifier delegate = new RecordingNotifier(3);
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 2, 8);
+
+		notifier.post(new PropertiesChangedBatch(2, ImmutableList.of(new PropertyModifiedEvent("a", 1, 2), new PropertyModifiedEvent("b", 1, 2),
+				new PropertyModifiedEvent("c", 1, 2))));
+
+		assertThat(delegate.delivered.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(delegate.events.size(), is(3));
+	}
+
+	@Test
+	public void shouldPostChangesOfBatchIndividuallyToNotifierNotPostingBatches() throws InterruptedException {
+		final RecordingNotifier recorder = new RecordingNotifier(2);
+		final PropertyChangedEventNotifier delegate = new PropertyChangedEventNotifier() {
+			@Override
+			public void post(final PropertyModifiedEvent propertyChangedEvent) {
+				recorder.post(propertyChangedEvent);
+			}
+
+			@Override
+			public void unregister(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+				// not required
+			}
+
+			@Override
+			public void register(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+				// not required
+			}
+		};
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 1, 8);
+
+		notifier.post(new PropertiesChangedBatch(2, ImmutableList.of(new PropertyModifiedEvent("a", 1, 2), new PropertyModifiedEvent("b", 1, 2))));
+
+		assertThat(recorder.delivered.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(recorder.events, contains(new PropertyModifiedEvent("a", 1, 2), new PropertyModifiedEvent("b", 1, 2)));
+	}
+
+	@Test
+	public void shouldBlockPosterWhenLaneIsFull() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingNotifier delegate = new RecordingNotifier(3) {
+			@Override
+			public void post(final PropertyModifiedEvent propertyChangedEvent) {
+				awaitQuietly(release);
+				super.post(propertyChangedEvent);
+			}
+		};
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 1, 1);
+		final AtomicBoolean posted = new AtomicBoolean();
+
+		// first event is taken by the blocked lane, the second fills the queue
+		notifier.post(new PropertyModifiedEvent("property", 1, 2));
+		Thread.sleep(100);
+		notifier.post(new PropertyModifiedEvent("property", 2, 3));
+		final Thread poster = new Thread() {
+			@Override
+			public void run() {
+				notifier.post(new PropertyModifiedEvent("property", 3, 4));
+				posted.set(true);
+			}
+		};
+		poster.start();
+		Thread.sleep(100);
+		assertThat(posted.get(), is(false));
+
+		release.countDown();
+		poster.join(5000);
+		assertThat(posted.get(), is(true));
+		assertThat(delegate.delivered.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void shouldApplyOnlyLatestPendingChangeWhenConflating() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingNotifier delegate = new BlockedNotifier(2, release);
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 1, 1, true);
+
+		// first change is taken by the blocked lane, later changes replace each other without blocking the poster
+		notifier.post(new PropertyModifiedEvent("property", 0, 1));
+		Thread.sleep(100);
+		for (int i = 1; i < 100; i++) {
+			notifier.post(new PropertiesChangedBatch(i, ImmutableList.of(new PropertyModifiedEvent("property", i, i + 1))));
+		}
+		release.countDown();
+
+		assertThat(delegate.delivered.await(5, TimeUnit.SECONDS), is(true));
+		Thread.sleep(100);
+		assertThat(delegate.events, contains(new PropertyModifiedEvent("property", 0, 1), new PropertyModifiedEvent("property", 1, 100)));
+		assertThat(delegate.versions, contains(99L));
+		assertThat(notifier.getConflatedChangeCount(), is(98L));
+	}
+
+	@Test
+	public void shouldDropPendingChangeRevertedBeforeDispatchWhenConflating() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingNotifier delegate = new BlockedNotifier(2, release);
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(delegate, this.executor, 1, 2, true);
+
+		notifier.post(new PropertyModifiedEvent("blocking", 0, 1));
+		Thread.sleep(100);
+		notifier.post(new PropertyModifiedEvent("property", "a", "b"));
+		notifier.post(new PropertyModifiedEvent("property", "b", "a"));
+		notifier.post(new PropertyModifiedEvent("other", "a", "b"));
+		release.countDown();
+
+		assertThat(delegate.delivered.await(5, TimeUnit.SECONDS), is(true));
+		Thread.sleep(100);
+		assertThat(delegate.events, contains(new PropertyModifiedEvent("blocking", 0, 1), new PropertyModifiedEvent("other", "a", "b")));
+	}
+
+	@Test
+	public void shouldCreateExecutorOnAnyJvm() throws InterruptedException {
+		final ExecutorService virtualThreadExecutor = ExecutorPropertyChangedEventNotifier.virtualThreadExecutor();
+		final CountDownLatch executed = new CountDownLatch(1);
+		virtualThreadExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				executed.countDown();
+			}
+		});
+
+		assertThat(virtualThreadExecutor, is(notNullValue()));
+		assertThat(executed.await(5, TimeUnit.SECONDS), is(true));
+		virtualThreadExecutor.shutdown();
+	}
+
+	private static void awaitQuietly(final CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread()
+				.interrupt();
+		}
+	}
+
+	private static class RecordingNotifier implements BatchingPropertyChangedEventNotifier {
+
+		private final List<PropertyModifiedEvent> events = Lists.newCopyOnWriteArrayList();
+		private final List<Long> versions = Lists.newCopyOnWriteArrayList();
+		private final CountDownLatch delivered;
+
+		RecordingNotifier(final int expectedEvents) {
+			this.delivered = new CountDownLatch(expectedEvents);
+		}
+
+		@Override
+		public void post(final PropertyModifiedEvent propertyChangedEvent) {
+			this.events.add(propertyChangedEvent);
+			this.delivered.countDown();
+		}
+
+		@Override
+		public void post(final PropertiesChangedBatch propertiesChangedBatch) {
+			this.versions.add(propertiesChangedBatch.getVersion());
+			for (final PropertyModifiedEvent change : propertiesChangedBatch.getChanges()) {
+				post(change);
+			}
+		}
+
+		@Override
+		public void unregister(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+			// not required
+		}
+
+		@Override
+		public void register(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+			// not required
+		}
+	}
+
+	private static class BlockedNotifier extends RecordingNotifier {
+
+		private final CountDownLatch release;
+
+		BlockedNotifier(final int expectedEvents, final CountDownLatch release) {
+			super(expectedEvents);
+			this.release = release;
+		}
+
+		@Override
+		public void post(final PropertyModifiedEvent propertyChangedEvent) {
+			awaitQuietly(this.release);
+			super.post(propertyChangedEvent);
+		}
+	}
+}
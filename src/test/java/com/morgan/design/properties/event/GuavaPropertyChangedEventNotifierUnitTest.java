@@ -9,7 +9,9 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.eventbus.EventBus;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
 import com.morgan.design.properties.bean.PropertyModifiedEvent;
 import com.morgan.design.properties.internal.ReloadablePropertyPostProcessor;
 
@@ -46,6 +48,17 @@ public class GuavaPropertyChangedEventNotifierUnitTest {
 		this.eventNotifier.post(event);
 	}
 
+	@Test
+	public void shouldPostBatch() {
+		final PropertiesChangedBatch batch = new PropertiesChangedBatch(2, ImmutableList.of(new PropertyModifiedEvent("", new Object(), new Object())));
+		this.context.checking(new Expectations() {
+			{
+				oneOf(eventBus).post(batch);
+			}
+		});
+		this.eventNotifier.post(batch);
+	}
+
 	@Test
 	public void shouldRegisterNewRegistery() {
 		final ReloadablePropertyPostProcessor registery = new ReloadablePropertyPostProcessor(null, null, null);
@@ -0,0 +1,119 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.morgan.design.properties.bean.BeanPropertyHolder;
+import com.morgan.design.properties.bean.FieldWriters;
+
+public class BeanPropertySubscriptionsUnitTest {
+
+	private BeanPropertySubscriptions subscriptions;
+	private Field field;
+
+	@Before
+	public void setUp() throws NoSuchFieldException {
+		this.subscriptions = new BeanPropertySubscriptions();
+		this.field = TestObject.class.getDeclaredField("value");
+	}
+
+	@Test
+	public void shouldReturnNoSubscribersForUnknownProperty() {
+		assertThat(this.subscriptions.getSubscribers("not.subscribed"), is(empty()));
+		assertThat(this.subscriptions.getSubscriberCount("not.subscribed"), is(0));
+	}
+
+	@Test
+	public void shouldIgnoreDuplicateSubscriptions() {
+		final TestObject bean = new TestObject();
+		final BeanPropertyHolder holder = subscribe(bean);
+		subscribe(bean);
+
+		assertThat(this.subscriptions.getSubscribers("dynamicProperty.stringValue"), contains(holder));
+	}
+
+	@Test
+	public void shouldUnsubscribeHolder() {
+		final TestObject firstBean = new TestObject();
+		final TestObject secondBean = new TestObject();
+		final BeanPropertyHolder first = subscribe(firstBean);
+		final BeanPropertyHolder second = subscribe(secondBean);
+
+		this.subscriptions.unsubscribe("dynamicProperty.stringValue", firstBean);
+		assertThat(this.subscriptions.getSubscribers("dynamicProperty.stringValue"), contains(second));
+
+		this.subscriptions.unsubscribe(second);
+		assertThat(this.subscriptions.getSubscriberCount("dynamicProperty.stringValue"), is(0));
+		assertThat(first.getBean(), is((Object) firstBean));
+	}
+
+	@Test
+	public void shouldExpungeSubscriptionsOfCollectedBeans() throws InterruptedException {
+		final TestObject liveBean = new TestObject();
+		final BeanPropertyHolder live = subscribe(liveBean);
+		subscribe(new TestObject());
+
+		for (int i = 0; i < 50 && this.subscriptions.getSubscriberCount("dynamicProperty.stringValue") > 1; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+
+		assertThat(this.subscriptions.getSubscribers("dynamicProperty.stringValue"), contains(live));
+	}
+
+	@Test
+	public void shouldKeepAllConcurrentSubscriptions() throws InterruptedException {
+		final int threads = 8;
+		final int subscriptionsPerThread = 500;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Object> beans = Collections.synchronizedList(new ArrayList<Object>());
+
+		for (int i = 0; i < threads; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					}
+					catch (final InterruptedException e) {
+						Thread.currentThread()
+							.interrupt();
+					}
+					for (int j = 0; j < subscriptionsPerThread; j++) {
+						final TestObject bean = new TestObject();
+						beans.add(bean);
+						subscribe(bean);
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertThat(this.subscriptions.getSubscriberCount("dynamicProperty.stringValue"), is(threads * subscriptionsPerThread));
+	}
+
+	private BeanPropertyHolder subscribe(final Object bean) {
+		return this.subscriptions.subscribe("dynamicProperty.stringValue", bean, this.field, FieldWriters.reflective(this.field), null);
+	}
+
+	static class TestObject {
+		String value;
+	}
+}
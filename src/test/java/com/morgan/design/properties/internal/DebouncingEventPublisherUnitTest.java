@@ -0,0 +1,86 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+
+public class DebouncingEventPublisherUnitTest {
+
+	private final AtomicInteger published = new AtomicInteger();
+	private final EventPublisher countingPublisher = new EventPublisher() {
+		@Override
+		public void onResourceChanged(final Resource resource) {
+			DebouncingEventPublisherUnitTest.this.published.incrementAndGet();
+		}
+	};
+
+	private File file;
+	private Resource resource;
+	private DebouncingEventPublisher debouncingPublisher;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("debouncing", ".properties");
+		this.resource = new FileSystemResource(this.file);
+	}
+
+	@After
+	public void tearDown() {
+		if (null != this.debouncingPublisher) {
+			this.debouncingPublisher.stop();
+		}
+		this.file.delete();
+	}
+
+	@Test
+	public void shouldPublishBurstOfChangesOnce() throws Exception {
+		this.debouncingPublisher = new DebouncingEventPublisher(this.countingPublisher, 100, Collections.<String, Long> emptyMap());
+
+		for (int i = 0; i < 5; i++) {
+			Files.write("dynamicProperty.intValue=" + i, this.file, Charsets.ISO_8859_1);
+			this.debouncingPublisher.onResourceChanged(this.resource);
+			Thread.sleep(20);
+		}
+		assertThat(this.published.get(), is(0));
+
+		Thread.sleep(500);
+		assertThat(this.published.get(), is(1));
+	}
+
+	@Test
+	public void shouldPublishSeparatedChangesSeparately() throws Exception {
+		this.debouncingPublisher = new DebouncingEventPublisher(this.countingPublisher, 50, Collections.<String, Long> emptyMap());
+
+		this.debouncingPublisher.onResourceChanged(this.resource);
+		Thread.sleep(300);
+		this.debouncingPublisher.onResourceChanged(this.resource);
+		Thread.sleep(300);
+
+		assertThat(this.published.get(), is(2));
+	}
+
+	@Test
+	public void shouldPublishImmediatelyWithoutDelay() {
+		this.debouncingPublisher = new DebouncingEventPublisher(this.countingPublisher, 100, ImmutableMap.of(this.file.getName(), 0L));
+
+		this.debouncingPublisher.onResourceChanged(this.resource);
+		this.debouncingPublisher.onResourceChanged(this.resource);
+
+		assertThat(this.published.get(), is(2));
+	}
+}
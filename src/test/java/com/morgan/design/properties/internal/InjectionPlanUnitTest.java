@@ -0,0 +1,116 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.ReloadableValue;
+import com.morgan.design.properties.conversion.DefaultPropertyConversionService;
+import com.morgan.design.properties.internal.InjectionPlan.InjectionPoint;
+
+public class InjectionPlanUnitTest {
+
+	private final DefaultPropertyConversionService conversionService = new DefaultPropertyConversionService();
+
+	// sees the hand written injector index in addition to the test class path
+	private final ClassLoader indexedClassLoader = new URLClassLoader(new URL[] { getClass().getResource("/generated-injectors/") }, getClass()
+		.getClassLoader());
+
+	@Test
+	public void shouldReportPlainFields() throws NoSuchFieldException {
+		final InjectionPlan injectionPlan = InjectionPlan.forClass(PlainFieldBean.class, this.conversionService);
+
+		assertThat(injectionPlan.getPlainFields(), contains(PlainFieldBean.class.getDeclaredField("plainValue")));
+		injectionPlan.validate();
+	}
+
+	@Test(expected = BeanInitializationException.class)
+	public void shouldRejectPlainFieldsInStrictMode() {
+		InjectionPlan.forClass(PlainFieldBean.class, this.conversionService, PublicationMode.STRICT)
+			.validate();
+	}
+
+	@Test
+	public void shouldAcceptVolatileFieldsAndHandlesInStrictMode() {
+		final InjectionPlan injectionPlan = InjectionPlan.forClass(SafelyPublishedBean.class, this.conversionService, PublicationMode.STRICT);
+
+		assertThat(injectionPlan.getPlainFields(), is(empty()));
+		assertThat(injectionPlan.getInjectionPoints()
+			.size(), is(3));
+		injectionPlan.validate();
+	}
+
+	@Test
+	public void shouldUseGeneratedInjectorWhenIndexed() {
+		final InjectionPlan injectionPlan = InjectionPlan.forInjector(GeneratedInjectorBean.class, GeneratedInjectors.forClass(GeneratedInjectorBean.class,
+				this.indexedClassLoader), this.conversionService, PublicationMode.STRICT);
+		final GeneratedInjectorBean bean = new GeneratedInjectorBean();
+
+		assertThat(injectionPlan.getInjectionPoints()
+			.size(), is(2));
+		final InjectionPoint intValue = injectionPlan.getInjectionPoints()
+			.get(0);
+		assertThat(intValue.getPropertyName(), is("dynamicProperty.intValue"));
+		assertThat(intValue.getFieldWriter()
+			.getClass()
+			.getEnclosingClass(), is((Object) InjectionPlanUnitTest_GeneratedInjectorBean_ReloadableInjector.class));
+		intValue.getFieldWriter()
+			.write(bean, intValue.getConverter()
+				.convert("42"));
+		assertThat(bean.intValue, is(42));
+
+		final InjectionPoint handle = injectionPlan.getInjectionPoints()
+			.get(1);
+		handle.getFieldWriter()
+			.write(bean, handle.getConverter()
+				.convert("generated"));
+		assertThat(bean.handle.get(), is("generated"));
+		injectionPlan.validate();
+	}
+
+	@Test
+	public void shouldScanClassesWithoutGeneratedInjector() {
+		assertThat(GeneratedInjectors.forClass(SafelyPublishedBean.class, this.indexedClassLoader), is(nullValue()));
+		assertThat(GeneratedInjectors.forClass(GeneratedInjectorBean.class), is(nullValue()));
+		assertThat(GeneratedInjectors.forClass(GeneratedInjectorBean.class, this.indexedClassLoader),
+				is(instanceOf(InjectionPlanUnitTest_GeneratedInjectorBean_ReloadableInjector.class)));
+	}
+
+	static class PlainFieldBean {
+		@ReloadableProperty("dynamicProperty.stringValue")
+		private String plainValue;
+
+		@ReloadableProperty("dynamicProperty.intValue")
+		private volatile int volatileValue;
+	}
+
+	static class SafelyPublishedBean {
+		@ReloadableProperty("dynamicProperty.stringValue")
+		private volatile String volatileValue;
+
+		@ReloadableProperty("dynamicProperty.stringValue")
+		private final ReloadableValue<String> handle = new ReloadableValue<String>();
+
+		@ReloadableProperty("dynamicProperty.intValue")
+		private final ReloadableInt intHandle = new ReloadableInt();
+	}
+
+	static class GeneratedInjectorBean {
+		@ReloadableProperty("dynamicProperty.intValue")
+		volatile int intValue;
+
+		@ReloadableProperty("dynamicProperty.stringValue")
+		final ReloadableValue<String> handle = new ReloadableValue<String>();
+	}
+}
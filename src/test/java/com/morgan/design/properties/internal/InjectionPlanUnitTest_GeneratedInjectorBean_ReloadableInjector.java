@@ -0,0 +1,28 @@
+package com.morgan.design.properties.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.morgan.design.properties.bean.FieldWriter;
+import com.morgan.design.properties.bean.InjectorBinding;
+import com.morgan.design.properties.bean.ReloadableInjector;
+
+/**
+ * Hand written injector of {@link InjectionPlanUnitTest.GeneratedInjectorBean} in the form generated by the reloadable-properties-processor module, which
+ * the main module does not depend on.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public final class InjectionPlanUnitTest_GeneratedInjectorBean_ReloadableInjector implements ReloadableInjector {
+
+	@Override
+	public List<InjectorBinding> getBindings() {
+		return Arrays.asList(
+			new InjectorBinding(com.morgan.design.properties.internal.InjectionPlanUnitTest.GeneratedInjectorBean.class, "intValue", "dynamicProperty.intValue", new FieldWriter() {
+				@Override
+				public void write(final Object bean, final Object value) {
+					((com.morgan.design.properties.internal.InjectionPlanUnitTest.GeneratedInjectorBean) bean).intValue = (java.lang.Integer) value;
+				}
+			}),
+			new InjectorBinding(com.morgan.design.properties.internal.InjectionPlanUnitTest.GeneratedInjectorBean.class, "handle", "dynamicProperty.stringValue", null));
+	}
+}
@@ -0,0 +1,101 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+import com.morgan.design.properties.metrics.ReloadMetrics;
+
+public class PollingPropertiesWatcherUnitTest {
+
+	private static final long MIN_INTERVAL = 10;
+	private static final long MAX_INTERVAL = 80;
+
+	private final List<Resource> changedResources = Lists.newArrayList();
+
+	private File file;
+	private Resource resource;
+	private PollingPropertiesWatcher watcher;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("polled", ".properties");
+		Files.write("dynamicProperty.stringValue=initial", this.file, Charsets.ISO_8859_1);
+		this.resource = new FileSystemResource(this.file);
+		this.watcher = new PollingPropertiesWatcher(new Resource[] { this.resource }, new EventPublisher() {
+			@Override
+			public void onResourceChanged(final Resource resource) {
+				PollingPropertiesWatcherUnitTest.this.changedResources.add(resource);
+			}
+		}, MIN_INTERVAL, MAX_INTERVAL, new ReloadMetrics());
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Test
+	public void shouldBackOffWhileFileUnchanged() {
+		long now = 0;
+		for (final long expectedInterval : new long[] { 20, 40, 80, 80 }) {
+			now += this.watcher.getPollIntervalMillis(this.resource);
+			this.watcher.poll(now);
+			assertThat(this.watcher.getPollIntervalMillis(this.resource), is(expectedInterval));
+		}
+		assertThat(this.changedResources, is(empty()));
+	}
+
+	@Test
+	public void shouldPublishChangeAndPollFastAgain() throws IOException {
+		this.watcher.poll(10);
+		this.watcher.poll(30);
+		assertThat(this.watcher.getPollIntervalMillis(this.resource), is(40L));
+
+		Files.write("dynamicProperty.stringValue=changed value", this.file, Charsets.ISO_8859_1);
+		this.watcher.poll(69);
+		assertThat(this.changedResources, is(empty()));
+
+		this.watcher.poll(70);
+		assertThat(this.changedResources, contains(this.resource));
+		assertThat(this.watcher.getPollIntervalMillis(this.resource), is(MIN_INTERVAL));
+	}
+
+	@Test
+	public void shouldPublishChangeOfFileReplacedWithSameSizeAndTimestamp() throws IOException {
+		final long lastModified = this.file.lastModified();
+		final File replacement = File.createTempFile("replacement", ".properties", this.file.getParentFile());
+		Files.write("dynamicProperty.stringValue=replaced", replacement, Charsets.ISO_8859_1);
+		replacement.setLastModified(lastModified);
+		assertThat(replacement.renameTo(this.file), is(true));
+
+		this.watcher.poll(10);
+		assertThat(this.changedResources, contains(this.resource));
+	}
+
+	@Test
+	public void shouldPublishFileOnceRecreated() throws IOException {
+		this.file.delete();
+		this.watcher.poll(10);
+		assertThat(this.changedResources, is(empty()));
+
+		Files.write("dynamicProperty.stringValue=recreated", this.file, Charsets.ISO_8859_1);
+		this.watcher.poll(30);
+		assertThat(this.changedResources, contains(this.resource));
+	}
+}
@@ -0,0 +1,97 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.morgan.design.properties.internal.PropertiesParser.PropertyHandler;
+
+public class PropertiesParserUnitTest {
+
+	private static final String CONTENT = "# comment\n"
+			+ "! another comment \\\n"
+			+ "   \n"
+			+ "simple=value\n"
+			+ "  leading.whitespace = trimmed value  \n"
+			+ "colon:separated\n"
+			+ "space separated\n"
+			+ "tab\tseparated\n"
+			+ "both = : value\n"
+			+ "empty=\n"
+			+ "novalue\n"
+			+ "=emptykey\n"
+			+ "escaped\\=key\\:with\\ separators=value\n"
+			+ "escapes=tab\\tnewline\\nreturn\\rformfeed\\fquote\\\"\n"
+			+ "unicode=\\u00e9t\\u00E9\n"
+			+ "continued=first \\\n"
+			+ "    second \\\r\n"
+			+ "\tthird\n"
+			+ "even.backslashes=value\\\\\n"
+			+ "# continued comment is not \\\n"
+			+ "not.comment=continued\\\n"
+			+ "#hash\n"
+			+ "windows=line\r\n"
+			+ "mac=line\r"
+			+ "duplicate=first\n"
+			+ "duplicate=second\n"
+			+ "last=no newline\\";
+
+	@Test
+	public void shouldParseLikeJavaUtilProperties() throws IOException {
+		final Properties expected = new Properties();
+		expected.load(new StringReader(CONTENT));
+
+		assertThat(parse(ByteBuffer.wrap(CONTENT.getBytes(Charsets.ISO_8859_1))), is((Map<String, String>) Maps.fromProperties(expected)));
+	}
+
+	@Test
+	public void shouldParseDecodedContent() throws IOException {
+		final Properties expected = new Properties();
+		expected.load(new StringReader(CONTENT));
+
+		assertThat(parse(CharBuffer.wrap(CONTENT)), is((Map<String, String>) Maps.fromProperties(expected)));
+	}
+
+	@Test
+	public void shouldReadBytesAsIso88591() {
+		final Map<String, String> properties = parse(ByteBuffer.wrap("accented=caf\u00e9".getBytes(Charsets.ISO_8859_1)));
+
+		assertThat(properties.get("accented"), is("caf\u00e9"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectMalformedUnicodeEscape() {
+		parse(CharBuffer.wrap("key=\\u00g1"));
+	}
+
+	private static Map<String, String> parse(final ByteBuffer content) {
+		final Map<String, String> properties = Maps.newHashMap();
+		PropertiesParser.parse(content, collectInto(properties));
+		return properties;
+	}
+
+	private static Map<String, String> parse(final CharBuffer content) {
+		final Map<String, String> properties = Maps.newHashMap();
+		PropertiesParser.parse(content, collectInto(properties));
+		return properties;
+	}
+
+	private static PropertyHandler collectInto(final Map<String, String> properties) {
+		return new PropertyHandler() {
+			@Override
+			public void property(final String key, final CharSequence value) {
+				properties.put(key, value.toString());
+			}
+		};
+	}
+}
@@ -0,0 +1,86 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class PropertiesSnapshotUnitTest {
+
+	@Test
+	public void shouldResolvePlaceholdersTransitively() {
+		final PropertiesSnapshot snapshot = snapshot("host", "example.com", "base.url", "http://${host}:${port}", "port", "8080", "api.url", "${base.url}/api");
+
+		assertThat(snapshot.resolve("api.url"), is((Object) "http://example.com:8080/api"));
+		assertThat(snapshot.resolve("host"), is((Object) "example.com"));
+		assertThat(snapshot.resolve("undefined"), is(nullValue()));
+	}
+
+	@Test
+	public void shouldCacheResolvedValues() {
+		final PropertiesSnapshot snapshot = snapshot("name", "world", "greeting", "Hello, ${name}!");
+
+		assertThat(snapshot.resolve("greeting"), is(sameInstance(snapshot.resolve("greeting"))));
+	}
+
+	@Test
+	public void shouldLeaveUndefinedReferencesInPlace() {
+		final PropertiesSnapshot snapshot = snapshot("greeting", "Hello, ${name}!", "unterminated", "${name");
+
+		assertThat(snapshot.resolve("greeting"), is((Object) "Hello, ${name}!"));
+		assertThat(snapshot.resolve("unterminated"), is((Object) "${name"));
+	}
+
+	@Test
+	public void shouldDetectCircularReferences() {
+		final PropertiesSnapshot snapshot = snapshot("a", "${b}", "b", "x${a}", "self", "${self}", "dependent", "${a}", "independent", "${c}", "c", "c");
+
+		assertThat(snapshot.getCircularProperties(), containsInAnyOrder("a", "b", "self", "dependent"));
+		assertThat(snapshot.resolve("independent"), is((Object) "c"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldRefuseToResolveCircularReference() {
+		snapshot("a", "${b}", "b", "${a}").resolve("a");
+	}
+
+	@Test
+	public void shouldResolveAgainstChangesInNewVersion() {
+		final PropertiesSnapshot initial = snapshot("name", "world", "greeting", "Hello, ${name}!");
+		initial.resolve("greeting");
+		final PropertiesSnapshot changed = initial.withChanges(ImmutableMap.of("name", "there"));
+
+		assertThat(changed.resolve("greeting"), is((Object) "Hello, there!"));
+		assertThat(initial.resolve("greeting"), is((Object) "Hello, world!"));
+		assertThat(changed.getCircularProperties(), is(empty()));
+	}
+
+	@Test
+	public void shouldDetectCircularReferencesIntroducedAndRemovedByChanges() {
+		final PropertiesSnapshot initial = snapshot("a", "${b}", "b", "b", "dependent", "${a}", "self", "${self}", "other", "${self}");
+
+		final PropertiesSnapshot cyclic = initial.withChanges(ImmutableMap.of("b", "${a}"));
+		assertThat(cyclic.getCircularProperties(), containsInAnyOrder("a", "b", "dependent", "self", "other"));
+
+		final PropertiesSnapshot repaired = cyclic.withChanges(ImmutableMap.of("a", "a", "self", "self"));
+		assertThat(repaired.getCircularProperties(), is(empty()));
+		assertThat(repaired.resolve("dependent"), is((Object) "a"));
+		assertThat(repaired.resolve("other"), is((Object) "self"));
+	}
+
+	private static PropertiesSnapshot snapshot(final String... keysAndValues) {
+		final Properties properties = new Properties();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return PropertiesSnapshot.initial(properties);
+	}
+}
@@ -18,14 +18,16 @@ import org.springframework.core.io.Resource;
 import com.google.common.base.Charsets;
 import com.google.common.io.Files;
 import com.morgan.design.properties.internal.PropertiesWatcher.EventPublisher;
+import com.morgan.design.properties.metrics.ReloadMetrics;
 
 public class PropertiesWatcherUnitTest {
 
 	private static final int _1_SEC = 1000;
 	private static final int _2_SEC = 2000;
 
-	private Resource actual;
-	private CountDownLatch lock = new CountDownLatch(0);
+	private volatile Resource actual;
+	private volatile String expected;
+	private volatile CountDownLatch lock = new CountDownLatch(0);
 
 	final File propertiesFile1 = new File("target/test-classes/test-files/fileWatcher.properties");
 	final File propertiesFile2 = new File("target/test-classes/test-files/different_fileWatcher.properties");
@@ -106,6 +108,42 @@ public class PropertiesWatcherUnitTest {
 		wait(_1_SEC);
 	}
 
+	@Test
+	public final void shouldKeepWatchingWhenPublishingChangeFails() throws IOException, InterruptedException {
+		final ReloadMetrics reloadMetrics = new ReloadMetrics();
+		final PropertiesWatcher propertiesWatcher = new PropertiesWatcher(this.multiResourceSameDir, new EventPublisher() {
+			@Override
+			@SuppressWarnings("unqualified-field-access")
+			public void onResourceChanged(final Resource data) {
+				if (lock.getCount() > 0 && data.getFilename()
+					.equals(expected)) {
+					actual = data;
+					lock.countDown();
+				}
+				throw new IllegalStateException("Failed to reload " + data);
+			}
+		}, reloadMetrics);
+
+		startPropertiesWatcher(propertiesWatcher);
+		Thread.sleep(_1_SEC);
+		assertThat(reloadMetrics.isWatcherAlive(), is(true));
+
+		modifyPropertiesFile(this.propertiesFile1);
+		wait(_2_SEC);
+		confirmPropertiesFileModified(this.propertiesFile1);
+
+		modifyPropertiesFile(this.propertiesFile2);
+		wait(_2_SEC);
+		confirmPropertiesFileModified(this.propertiesFile2);
+		assertThat(reloadMetrics.isWatcherAlive(), is(true));
+		assertThat(reloadMetrics.getLastWatchEventTime() > 0, is(true));
+
+		propertiesWatcher.stop();
+		Thread.sleep(_1_SEC);
+		assertThat(reloadMetrics.isWatcherAlive(), is(false));
+		assertNull(reloadMetrics.getWatcherFailure());
+	}
+
 	private void resetCountDownLatch(final int count) {
 		this.lock = new CountDownLatch(count);
 	}
@@ -133,6 +171,9 @@ public class PropertiesWatcherUnitTest {
 	}
 
 	private void modifyPropertiesFile(final File file) throws IOException {
+		// a single write can be reported as several modification events, only wait for the first event of the file modified
+		this.expected = file.getName();
+		resetCountDownLatch(1);
 		Files.write("random string", file, Charsets.UTF_8);
 	}
 
@@ -141,8 +182,11 @@ public class PropertiesWatcherUnitTest {
 			@Override
 			@SuppressWarnings("unqualified-field-access")
 			public void onResourceChanged(final Resource data) {
-				actual = data;
-				lock.countDown();
+				if (lock.getCount() > 0 && data.getFilename()
+					.equals(expected)) {
+					actual = data;
+					lock.countDown();
+				}
 			}
 		});
 		return propertiesWatcher;
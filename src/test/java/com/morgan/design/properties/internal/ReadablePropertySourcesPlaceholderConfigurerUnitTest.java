@@ -0,0 +1,314 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.morgan.design.properties.bean.PropertiesChangedBatch;
+import com.morgan.design.properties.bean.PropertyModifiedEvent;
+import com.morgan.design.properties.event.BatchingPropertyChangedEventNotifier;
+import com.morgan.design.properties.event.PropertyChangedEventNotifier;
+import com.morgan.design.properties.metrics.ResourceReloadStatistics;
+import com.morgan.design.properties.resolver.SubstitutingPropertyResolver;
+
+public class ReadablePropertySourcesPlaceholderConfigurerUnitTest {
+
+	private final List<PropertyModifiedEvent> events = Lists.newArrayList();
+	private final List<PropertiesChangedBatch> batches = Lists.newArrayList();
+
+	private File baseFile;
+	private File overrideFile;
+	private Resource baseResource;
+	private Resource overrideResource;
+	private ReadablePropertySourcesPlaceholderConfigurer configurer;
+
+	@Before
+	public void setUp() throws IOException {
+		this.baseFile = File.createTempFile("base", ".properties");
+		this.overrideFile = File.createTempFile("override", ".properties");
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.intValue=1", "dynamicProperty.longValue=2");
+		write(this.overrideFile, "dynamicProperty.longValue=3");
+
+		this.baseResource = new FileSystemResource(this.baseFile);
+		this.overrideResource = new FileSystemResource(this.overrideFile);
+
+		this.configurer = new ReadablePropertySourcesPlaceholderConfigurer(new RecordingEventNotifier(), new SubstitutingPropertyResolver());
+		this.configurer.setLocations(new Resource[] { this.baseResource, this.overrideResource });
+		this.configurer.mergeProperties();
+	}
+
+	@After
+	public void tearDown() {
+		this.baseFile.delete();
+		this.overrideFile.delete();
+	}
+
+	@Test
+	public void shouldLetLaterLocationsOverrideEarlierOnes() {
+		assertThat(this.configurer.getProperties()
+			.getProperty("dynamicProperty.longValue"), is("3"));
+	}
+
+	@Test
+	public void shouldPostEventsForChangedAndAddedPropertiesOnly() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=1", "dynamicProperty.longValue=2", "dynamicProperty.added=new");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, containsInAnyOrder(new PropertyModifiedEvent("dynamicProperty.stringValue", "base", "changed"), new PropertyModifiedEvent(
+				"dynamicProperty.added", null, "new")));
+		assertThat(this.configurer.getProperties()
+			.getProperty("dynamicProperty.added"), is("new"));
+	}
+
+	@Test
+	public void shouldNotPostEventsForPropertiesOverriddenByLaterLocation() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.intValue=1", "dynamicProperty.longValue=20");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, is(empty()));
+		assertThat(this.configurer.getProperties()
+			.getProperty("dynamicProperty.longValue"), is("3"));
+	}
+
+	@Test
+	public void shouldFallBackToEarlierLocationWhenOverrideRemoved() throws IOException {
+		write(this.overrideFile, "");
+		this.configurer.onResourceChanged(this.overrideResource);
+
+		assertThat(this.events, contains(new PropertyModifiedEvent("dynamicProperty.longValue", "3", "2")));
+	}
+
+	@Test
+	public void shouldRetainValueOfPropertyRemovedFromAllLocations() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, is(empty()));
+		assertThat(this.configurer.getProperties()
+			.getProperty("dynamicProperty.intValue"), is("1"));
+	}
+
+	@Test
+	public void shouldPostSingleBatchPerReload() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=2", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.batches.size(), is(1));
+		assertThat(this.batches.get(0)
+			.getVersion(), is(this.configurer.getSnapshot()
+			.getVersion()));
+		assertThat(this.batches.get(0)
+			.getChanges(), containsInAnyOrder(new PropertyModifiedEvent("dynamicProperty.stringValue", "base", "changed"), new PropertyModifiedEvent(
+				"dynamicProperty.intValue", "1", "2")));
+	}
+
+	@Test
+	public void shouldPostEventPerPropertyInCompatibilityMode() throws IOException {
+		this.configurer.setPostPropertyModifiedEvents(true);
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=2", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.batches, is(empty()));
+		assertThat(this.events, containsInAnyOrder(new PropertyModifiedEvent("dynamicProperty.stringValue", "base", "changed"), new PropertyModifiedEvent(
+				"dynamicProperty.intValue", "1", "2")));
+	}
+
+	@Test
+	public void shouldPostEventPerPropertyToNotifierNotPostingBatches() throws IOException {
+		final ReadablePropertySourcesPlaceholderConfigurer configurer = new ReadablePropertySourcesPlaceholderConfigurer(new PropertyChangedEventNotifier() {
+			@Override
+			public void post(final PropertyModifiedEvent propertyChangedEvent) {
+				ReadablePropertySourcesPlaceholderConfigurerUnitTest.this.events.add(propertyChangedEvent);
+			}
+
+			@Override
+			public void unregister(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+				// not required
+			}
+
+			@Override
+			public void register(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+				// not required
+			}
+		}, new SubstitutingPropertyResolver());
+		configurer.setLocations(new Resource[] { this.baseResource, this.overrideResource });
+		configurer.mergeProperties();
+
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=2", "dynamicProperty.longValue=2");
+		configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, containsInAnyOrder(new PropertyModifiedEvent("dynamicProperty.stringValue", "base", "changed"), new PropertyModifiedEvent(
+				"dynamicProperty.intValue", "1", "2")));
+	}
+
+	@Test
+	public void shouldNotPostEmptyBatch() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.intValue=1", "dynamicProperty.longValue=20");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.batches, is(empty()));
+	}
+
+	@Test
+	public void shouldPostEventsForTransitiveDependentsOfChangedProperty() throws IOException {
+		write(this.overrideFile, "dynamicProperty.longValue=3", "url=${host}/path", "api=${url}/api", "unrelated=${other}", "host=old", "other=other");
+		this.configurer.mergeProperties();
+
+		write(this.overrideFile, "dynamicProperty.longValue=3", "url=${host}/path", "api=${url}/api", "unrelated=${other}", "host=new", "other=other");
+		this.configurer.onResourceChanged(this.overrideResource);
+
+		assertThat(this.events, contains(new PropertyModifiedEvent("host", "old", "new"), new PropertyModifiedEvent("url", "old/path", "new/path"),
+				new PropertyModifiedEvent("api", "old/path/api", "new/path/api")));
+	}
+
+	@Test
+	public void shouldPublishReloadAsNewSnapshotVersion() throws IOException {
+		final PropertiesSnapshot initial = this.configurer.getSnapshot();
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=2", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		final PropertiesSnapshot reloaded = this.configurer.getSnapshot();
+		assertThat(reloaded.getVersion(), is(initial.getVersion() + 1));
+		assertThat(reloaded.getProperty("dynamicProperty.stringValue"), is("changed"));
+		assertThat(reloaded.getProperty("dynamicProperty.intValue"), is("2"));
+		assertThat(initial.getProperty("dynamicProperty.stringValue"), is("base"));
+		assertThat(initial.getProperty("dynamicProperty.intValue"), is("1"));
+	}
+
+	@Test
+	public void shouldKeepSnapshotVersionWhenNoEffectiveValueChanges() throws IOException {
+		final PropertiesSnapshot initial = this.configurer.getSnapshot();
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.intValue=1", "dynamicProperty.longValue=20");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.configurer.getSnapshot(), is(sameInstance(initial)));
+	}
+
+	@Test
+	public void shouldReturnCopyOfProperties() {
+		this.configurer.getProperties()
+			.setProperty("dynamicProperty.stringValue", "modified");
+
+		assertThat(this.configurer.getSnapshot()
+			.getProperty("dynamicProperty.stringValue"), is("base"));
+	}
+
+	@Test
+	public void shouldSkipReloadOfUnchangedContent() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=base", "dynamicProperty.intValue=1", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, is(empty()));
+		assertThat(this.configurer.getSkippedReloadCount(), is(1L));
+	}
+
+	@Test
+	public void shouldReloadContentOfSameSizeModifiedWithinFileSystemTimestampGranularity() throws IOException {
+		final long lastModified = this.baseFile.lastModified();
+		write(this.baseFile, "dynamicProperty.stringValue=edit", "dynamicProperty.intValue=1", "dynamicProperty.longValue=2");
+		this.baseFile.setLastModified(lastModified);
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, contains(new PropertyModifiedEvent("dynamicProperty.stringValue", "base", "edit")));
+		assertThat(this.configurer.getSkippedReloadCount(), is(0L));
+	}
+
+	@Test
+	public void shouldRecordReloadMetrics() throws IOException {
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=2", "dynamicProperty.longValue=2");
+		this.configurer.onResourceChanged(this.baseResource);
+
+		final ResourceReloadStatistics statistics = this.configurer.getReloadMetrics()
+			.getResourceStatistics()
+			.get(this.baseResource.getDescription());
+		assertThat(statistics.getReloadCount(), is(1L));
+		assertThat(statistics.getChangedProperties()
+			.getMax(), is(2L));
+		assertThat(statistics.getDispatchLatency()
+			.getCount(), is(1L));
+	}
+
+	@Test
+	public void shouldDiffResourceReadThroughChannel() throws IOException {
+		final List<String> lines = Lists.newArrayList();
+		for (int i = 0; lines.size() * 40 < ResourceContent.CHANNEL_READ_THRESHOLD_BYTES; i++) {
+			lines.add(String.format("generated.route.%08d=customer-%020d", i, i));
+		}
+		write(this.baseFile, lines.toArray(new String[lines.size()]));
+		this.configurer.mergeProperties();
+
+		lines.set(7, "generated.route.00000007=changed");
+		write(this.baseFile, lines.toArray(new String[lines.size()]));
+		this.configurer.onResourceChanged(this.baseResource);
+
+		assertThat(this.events, contains(new PropertyModifiedEvent("generated.route.00000007", String.format("customer-%020d", 7), "changed")));
+	}
+
+	@Test
+	public void shouldDiscardDelayedChangesOnceStopped() throws Exception {
+		this.configurer.setWatchStrategy(WatchStrategy.POLLING);
+		this.configurer.setMinPollingIntervalMillis(10);
+		this.configurer.setReloadDelayMillis(300);
+		this.configurer.startWatching();
+		assertThat(this.configurer.getReloadMetrics()
+			.isWatcherAlive(), is(true));
+
+		write(this.baseFile, "dynamicProperty.stringValue=changed", "dynamicProperty.intValue=1", "dynamicProperty.longValue=2");
+		Thread.sleep(100);
+		this.configurer.destroy();
+		Thread.sleep(400);
+
+		assertThat(this.events, is(empty()));
+		assertThat(this.configurer.getReloadMetrics()
+			.isWatcherAlive(), is(false));
+	}
+
+	private static void write(final File file, final String... lines) throws IOException {
+		final StringBuilder content = new StringBuilder();
+		for (final String line : lines) {
+			content.append(line)
+				.append('\n');
+		}
+		Files.write(content, file, Charsets.ISO_8859_1);
+	}
+
+	private class RecordingEventNotifier implements BatchingPropertyChangedEventNotifier {
+
+		@Override
+		public void post(final PropertyModifiedEvent propertyChangedEvent) {
+			ReadablePropertySourcesPlaceholderConfigurerUnitTest.this.events.add(propertyChangedEvent);
+		}
+
+		@Override
+		public void post(final PropertiesChangedBatch propertiesChangedBatch) {
+			ReadablePropertySourcesPlaceholderConfigurerUnitTest.this.batches.add(propertiesChangedBatch);
+			ReadablePropertySourcesPlaceholderConfigurerUnitTest.this.events.addAll(propertiesChangedBatch.getChanges());
+		}
+
+		@Override
+		public void unregister(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+			// not required
+		}
+
+		@Override
+		public void register(final ReloadablePropertyPostProcessor reloadablePropertyProcessor) {
+			// not required
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+import com.morgan.design.properties.testBeans.ReloadableHandleBean;
+
+@ContextConfiguration(locations = { "classpath:/spring/spring-reloadableHandlesIntTest.xml" })
+public class ReloadableHandlePropertyPostProcessorIntTest extends AbstractJUnit4SpringContextTests {
+
+	private static final String DIR = "target/test-classes/test-files/";
+	private static final String PROPERTIES = "reloadableHandles.properties";
+
+	@Autowired
+	private ReloadableHandleBean bean;
+
+	private Properties loadedProperties;
+
+	@Before
+	public void setUp() throws IOException {
+		this.loadedProperties = PropertiesLoaderUtils.loadAllProperties("test-files/" + PROPERTIES);
+	}
+
+	@After
+	public void cleanUp() throws Exception {
+		this.loadedProperties.setProperty("handle.stringValue", "Injected String Value");
+		this.loadedProperties.setProperty("handle.intValue", "42");
+		this.loadedProperties.setProperty("handle.longValue", "4200000000");
+		this.loadedProperties.setProperty("handle.booleanValue", "true");
+		this.loadedProperties.setProperty("handle.doubleValue", "4.2");
+		store();
+
+		Thread.sleep(500); // this is a hack -> I need to find an alternative
+
+		assertThat(this.bean.getStringValue()
+			.get(), is("Injected String Value"));
+		assertThat(this.bean.getIntValue()
+			.getAsInt(), is(42));
+	}
+
+	@Test
+	public void shouldInjectHandles() {
+		assertThat(this.bean.getStringValue()
+			.get(), is("Injected String Value"));
+		assertThat(this.bean.getIntValue()
+			.getAsInt(), is(42));
+		assertThat(this.bean.getLongValue()
+			.getAsLong(), is(4200000000L));
+		assertThat(this.bean.getBooleanValue()
+			.getAsBoolean(), is(true));
+		assertThat(this.bean.getDoubleValue()
+			.getAsDouble(), is(4.2d));
+	}
+
+	@Test
+	public void shouldPreserveHandleDefaultIfNoPropertyFound() {
+		assertThat(this.bean.getDefaultedValue()
+			.getAsInt(), is(55));
+	}
+
+	@Test
+	public void shouldReloadAlteredHandles() throws Exception {
+		this.loadedProperties.setProperty("handle.stringValue", "Altered Injected String Value");
+		this.loadedProperties.setProperty("handle.intValue", "43");
+		this.loadedProperties.setProperty("handle.longValue", "4300000000");
+		this.loadedProperties.setProperty("handle.booleanValue", "off");
+		this.loadedProperties.setProperty("handle.doubleValue", "4.3");
+		store();
+
+		Thread.sleep(500); // this is a hack -> I need to find an alternative
+
+		assertThat(this.bean.getStringValue()
+			.get(), is("Altered Injected String Value"));
+		assertThat(this.bean.getIntValue()
+			.getAsInt(), is(43));
+		assertThat(this.bean.getLongValue()
+			.getAsLong(), is(4300000000L));
+		assertThat(this.bean.getBooleanValue()
+			.getAsBoolean(), is(false));
+		assertThat(this.bean.getDoubleValue()
+			.getAsDouble(), is(4.3d));
+	}
+
+	private void store() throws IOException {
+		final OutputStream newOutputStream = Files.newOutputStream(new File(DIR + PROPERTIES).toPath(), new OpenOption[] {});
+		try {
+			this.loadedProperties.store(newOutputStream, null);
+		}
+		finally {
+			newOutputStream.close();
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.eventbus.EventBus;
+import com.google.common.io.Files;
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.bean.PropertyModifiedEvent;
+import com.morgan.design.properties.conversion.DefaultPropertyConversionService;
+import com.morgan.design.properties.conversion.PropertyConversionService;
+import com.morgan.design.properties.conversion.PropertyConverter;
+import com.morgan.design.properties.event.ExecutorPropertyChangedEventNotifier;
+import com.morgan.design.properties.event.GuavaPropertyChangedEventNotifier;
+import com.morgan.design.properties.metrics.ReloadMetrics;
+import com.morgan.design.properties.resolver.SubstitutingPropertyResolver;
+
+public class ReloadablePropertyPostProcessorUnitTest {
+
+	private static final String PROPERTY = "dynamicProperty.value";
+	// dispatched on a different lane of the executor notifier than PROPERTY
+	private static final String OTHER_PROPERTY = "dynamicProperty.other";
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final BlockingConversionService conversionService = new BlockingConversionService();
+
+	private File file;
+	private Resource resource;
+	private ReadablePropertySourcesPlaceholderConfigurer configurer;
+	private ReloadablePropertyPostProcessor processor;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("subscribers", ".properties");
+		Files.write(PROPERTY + "=1\n" + OTHER_PROPERTY + "=a\n", this.file, Charsets.ISO_8859_1);
+		this.resource = new FileSystemResource(this.file);
+
+		final GuavaPropertyChangedEventNotifier eventNotifier = new GuavaPropertyChangedEventNotifier(new EventBus());
+		this.configurer = new ReadablePropertySourcesPlaceholderConfigurer(eventNotifier, new SubstitutingPropertyResolver());
+		this.configurer.setLocations(new Resource[] { this.resource });
+		this.configurer.mergeProperties();
+		this.processor = new ReloadablePropertyPostProcessor(this.configurer, eventNotifier, this.conversionService);
+	}
+
+	@After
+	public void tearDown() {
+		this.conversionService.release.countDown();
+		this.executor.shutdownNow();
+		this.file.delete();
+	}
+
+	@Test
+	public void shouldUpdateRemainingSubscribersWhenOneFails() throws IOException {
+		final IntBean intBean = subscribe(new IntBean());
+		final StringBean stringBean = subscribe(new StringBean());
+
+		change("not a number");
+
+		assertThat(intBean.value, is(1));
+		assertThat(stringBean.value, is("not a number"));
+		assertThat(metrics().getFailedSubscriberUpdateCount(), is(1L));
+		assertThat(metrics().getConversionFailureCount(), is(1L));
+	}
+
+	@Test
+	public void shouldNotDelayOtherSubscribersBehindSlowSubscriber() throws Exception {
+		this.processor.setSubscriberExecutor(this.executor);
+		this.processor.setSubscriberQueueCapacity(1);
+		final BlockingBean blockingBean = subscribe(new BlockingBean());
+		final StringBean stringBean = subscribe(new StringBean());
+		this.conversionService.block();
+
+		change("2");
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		awaitValue(stringBean, "2");
+
+		// the pending update of the blocked bean is conflated, it applies the latest value once it runs
+		change("3");
+		change("4");
+		awaitValue(stringBean, "4");
+		assertThat(blockingBean.blockingValue, is("1"));
+
+		this.conversionService.release.countDown();
+		awaitValue(blockingBean, "4");
+		assertThat(this.conversionService.blockedConversions.get(), is(2));
+		assertThat(metrics().getDroppedSubscriberUpdateCount(), is(0L));
+	}
+
+	@Test
+	public void shouldConflateUpdatesOfMoreFieldsThanQueueCapacity() throws Exception {
+		this.processor.setSubscriberExecutor(this.executor);
+		this.processor.setSubscriberQueueCapacity(1);
+		final WideBean wideBean = subscribe(new WideBean());
+		this.conversionService.block();
+
+		change("2");
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		// every field of the bean is queued behind the blocked update
+		change("3");
+		this.conversionService.release.countDown();
+
+		awaitValue(wideBean, BlockingBean.class.getDeclaredField("blockingValue"), "3");
+		awaitValue(wideBean, WideBean.class.getDeclaredField("first"), "3");
+		awaitValue(wideBean, WideBean.class.getDeclaredField("second"), "3");
+		assertThat(metrics().getDroppedSubscriberUpdateCount(), is(0L));
+	}
+
+	@Test
+	public void shouldDropPendingUpdatesRejectedByExecutor() throws IOException {
+		this.processor.setSubscriberExecutor(new Executor() {
+			@Override
+			public void execute(final Runnable command) {
+				throw new RejectedExecutionException("shut down");
+			}
+		});
+		final StringBean stringBean = subscribe(new StringBean());
+
+		change("2");
+		change("3");
+
+		assertThat(stringBean.value, is("1"));
+		assertThat(metrics().getDroppedSubscriberUpdateCount(), is(2L));
+	}
+
+	@Test
+	public void shouldDropUpdatesForFullQueue() throws Exception {
+		this.processor.setSubscriberExecutor(this.executor);
+		this.processor.setSubscriberQueueCapacity(1);
+		this.processor.setSlowSubscriberPolicy(SlowSubscriberPolicy.DROP);
+		subscribe(new BlockingBean());
+		this.conversionService.block();
+
+		change("2");
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		change("3");
+		change("4");
+
+		assertThat(metrics().getDroppedSubscriberUpdateCount(), is(1L));
+	}
+
+	@Test
+	public void shouldBlockDispatchForTimeoutBeforeDroppingUpdate() throws Exception {
+		this.processor.setSubscriberExecutor(this.executor);
+		this.processor.setSubscriberQueueCapacity(1);
+		this.processor.setSlowSubscriberPolicy(SlowSubscriberPolicy.BLOCK);
+		this.processor.setSubscriberBlockTimeoutMillis(200);
+		subscribe(new BlockingBean());
+		this.conversionService.block();
+
+		change("2");
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		change("3");
+		final long start = System.nanoTime();
+		change("4");
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(greaterThanOrEqualTo(200L)));
+		assertThat(metrics().getDroppedSubscriberUpdateCount(), is(1L));
+	}
+
+	@Test
+	public void shouldReportSlowUpdateWithoutAbandoningIt() throws Exception {
+		this.processor.setSubscriberExecutor(this.executor);
+		this.processor.setSlowUpdateThresholdMillis(10);
+		final BlockingBean blockingBean = subscribe(new BlockingBean());
+		this.conversionService.block();
+
+		change("2");
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		Thread.sleep(50);
+		this.conversionService.release.countDown();
+
+		awaitValue(blockingBean, "2");
+		for (int i = 0; i < 500 && metrics().getSlowSubscriberUpdateCount() == 0; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(metrics().getSlowSubscriberUpdateCount(), is(1L));
+	}
+
+	@Test
+	public void shouldHandleChangesOfDifferentPropertiesConcurrentlyThroughEventBus() throws Exception {
+		final EventBus eventBus = new EventBus();
+		eventBus.register(this.processor);
+		final ExecutorPropertyChangedEventNotifier notifier = new ExecutorPropertyChangedEventNotifier(new GuavaPropertyChangedEventNotifier(eventBus),
+				this.executor);
+		subscribe(new BlockingBean());
+		final OtherBean otherBean = subscribe(new OtherBean());
+		this.conversionService.block();
+
+		Files.write(PROPERTY + "=2\n" + OTHER_PROPERTY + "=b\n", this.file, Charsets.ISO_8859_1);
+		this.configurer.onResourceChanged(this.resource);
+		notifier.post(new PropertyModifiedEvent(PROPERTY, "1", "2"));
+		assertThat(this.conversionService.entered.await(5, TimeUnit.SECONDS), is(true));
+		notifier.post(new PropertyModifiedEvent(OTHER_PROPERTY, "a", "b"));
+
+		awaitValue(otherBean, "b");
+	}
+
+	private <T> T subscribe(final T bean) {
+		this.processor.postProcessAfterInstantiation(bean, bean.getClass()
+			.getSimpleName());
+		return bean;
+	}
+
+	private void change(final String value) throws IOException {
+		final Object oldValue = this.configurer.getSnapshot()
+			.get(PROPERTY);
+		Files.write(PROPERTY + "=" + value + "\n", this.file, Charsets.ISO_8859_1);
+		this.configurer.onResourceChanged(this.resource);
+		this.processor.handlePropertyChange(new PropertyModifiedEvent(PROPERTY, oldValue, value));
+	}
+
+	private ReloadMetrics metrics() {
+		return this.configurer.getReloadMetrics();
+	}
+
+	private static void awaitValue(final Object bean, final String expected) throws Exception {
+		awaitValue(bean, bean.getClass()
+			.getDeclaredFields()[0], expected);
+	}
+
+	private static void awaitValue(final Object bean, final Field field, final String expected) throws Exception {
+		for (int i = 0; i < 500 && !expected.equals(field.get(bean)); i++) {
+			Thread.sleep(10);
+		}
+		assertThat(field.get(bean), is((Object) expected));
+	}
+
+	static class IntBean {
+		@ReloadableProperty(PROPERTY)
+		volatile int value;
+	}
+
+	static class StringBean {
+		@ReloadableProperty(PROPERTY)
+		volatile String value;
+	}
+
+	static class OtherBean {
+		@ReloadableProperty(OTHER_PROPERTY)
+		volatile String value;
+	}
+
+	static class BlockingBean {
+		@ReloadableProperty(PROPERTY)
+		volatile String blockingValue;
+	}
+
+	static class WideBean extends BlockingBean {
+		@ReloadableProperty(PROPERTY)
+		volatile String first;
+
+		@ReloadableProperty(PROPERTY)
+		volatile String second;
+	}
+
+	/**
+	 * Blocks conversions for fields of {@link BlockingBean} until released, once blocking is enabled
+	 */
+	private static class BlockingConversionService implements PropertyConversionService {
+
+		private final DefaultPropertyConversionService delegate = new DefaultPropertyConversionService();
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicInteger blockedConversions = new AtomicInteger();
+		private volatile boolean blocking;
+
+		void block() {
+			this.blocking = true;
+		}
+
+		@Override
+		public Object convertPropertyForField(final Field field, final Object property) {
+			return this.delegate.convertPropertyForField(field, property);
+		}
+
+		@Override
+		public PropertyConverter resolveConverter(final Field field) {
+			final PropertyConverter converter = this.delegate.resolveConverter(field);
+			if (field.getDeclaringClass() != BlockingBean.class) {
+				return converter;
+			}
+			return new PropertyConverter() {
+				@Override
+				public Object convert(final Object property) {
+					if (BlockingConversionService.this.blocking) {
+						BlockingConversionService.this.blockedConversions.incrementAndGet();
+						BlockingConversionService.this.entered.countDown();
+						try {
+							BlockingConversionService.this.release.await();
+						}
+						catch (final InterruptedException e) {
+							Thread.currentThread()
+								.interrupt();
+						}
+					}
+					return converter.convert(property);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.Files;
+
+public class ResourceContentUnitTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("content", ".properties");
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Test
+	public void shouldReadChannelIntoBufferOfFileSize() throws IOException {
+		final byte[] bytes = bytes(100000);
+		Files.write(bytes, this.file);
+
+		final ByteBuffer content = ResourceContent.readChannel(this.file, this.file.length());
+
+		assertThat(content.capacity(), is(bytes.length));
+		assertThat(toByteArray(content), is(bytes));
+	}
+
+	@Test
+	public void shouldReadChannelToEndOfGrownFile() throws IOException {
+		final byte[] bytes = bytes(100000);
+		Files.write(bytes, this.file);
+
+		final ByteBuffer content = ResourceContent.readChannel(this.file, 1000);
+
+		assertThat(toByteArray(content), is(bytes));
+	}
+
+	@Test
+	public void shouldReadChannelToEndOfTruncatedFile() throws IOException {
+		final byte[] bytes = bytes(1000);
+		Files.write(bytes, this.file);
+
+		final ByteBuffer content = ResourceContent.readChannel(this.file, 100000);
+
+		assertThat(toByteArray(content), is(bytes));
+	}
+
+	private static byte[] bytes(final int length) {
+		final byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) 'a');
+		bytes[length - 1] = 'z';
+		return bytes;
+	}
+
+	private static byte[] toByteArray(final ByteBuffer content) {
+		final byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		return bytes;
+	}
+}
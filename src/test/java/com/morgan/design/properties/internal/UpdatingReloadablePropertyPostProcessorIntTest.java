@@ -87,4 +87,23 @@ public class UpdatingReloadablePropertyPostProcessorIntTest extends AbstractJUni
 
         assertThat(this.bean.getCompositeStringProperty(), is("Goodbye, World!"));
     }
+
+    @Test
+    public void shouldReloadCompositeStringPropertyWhenReferencedPropertyAltered() throws Exception {
+        assertThat(this.bean.getCompositeStringProperty(), is("Hello, World!"));
+
+        this.loadedProperties.setProperty("dynamicProperty.stringValue", "Injected String Value");
+        this.loadedProperties.setProperty("dynamicProperty.compoiteStringValue", "Hello, ${dynamicProperty.baseStringValue}!");
+        this.loadedProperties.setProperty("dynamicProperty.baseStringValue", "There");
+
+        final File file = new File(DIR + PROPERTIES);
+        final OutputStream newOutputStream = Files.newOutputStream(file.toPath(), new OpenOption[] {});
+        this.loadedProperties.store(newOutputStream, null);
+        newOutputStream.flush();
+        newOutputStream.close();
+
+        Thread.sleep(1000); // this is a hack -> I need to find an alternative
+
+        assertThat(this.bean.getCompositeStringProperty(), is("Hello, There!"));
+    }
 }
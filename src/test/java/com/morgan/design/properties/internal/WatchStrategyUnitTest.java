@@ -0,0 +1,24 @@
+package com.morgan.design.properties.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class WatchStrategyUnitTest {
+
+	@Test
+	public void shouldPollNetworkAndOverlayFileStores() {
+		assertThat(WatchStrategy.isPolledFileStoreType("nfs4"), is(true));
+		assertThat(WatchStrategy.isPolledFileStoreType("fuse.sshfs"), is(true));
+		assertThat(WatchStrategy.isPolledFileStoreType("overlay"), is(true));
+		assertThat(WatchStrategy.isPolledFileStoreType("overlayfs"), is(true));
+	}
+
+	@Test
+	public void shouldWatchLocalFileStores() {
+		assertThat(WatchStrategy.isPolledFileStoreType("ext4"), is(false));
+		assertThat(WatchStrategy.isPolledFileStoreType("xfs"), is(false));
+		assertThat(WatchStrategy.isPolledFileStoreType("tmpfs"), is(false));
+	}
+}
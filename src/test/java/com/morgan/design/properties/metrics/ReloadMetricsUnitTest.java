@@ -0,0 +1,111 @@
+package com.morgan.design.properties.metrics;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+
+public class ReloadMetricsUnitTest {
+
+	private final ReloadMetrics reloadMetrics = new ReloadMetrics();
+	private final Resource resource = new ByteArrayResource(new byte[0], "resource");
+
+	@Test
+	public void shouldReportPercentilesAsUpperBoundOfBucket() {
+		final Histogram histogram = new Histogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+		final HistogramSnapshot snapshot = histogram.snapshot();
+
+		assertThat(snapshot.getCount(), is(100L));
+		assertThat(snapshot.getMean(), is(50.5));
+		assertThat(snapshot.getP50(), is(63L));
+		assertThat(snapshot.getP99(), is(100L));
+		assertThat(snapshot.getMax(), is(100L));
+	}
+
+	@Test
+	public void shouldReportEmptyHistogram() {
+		final HistogramSnapshot snapshot = new Histogram().snapshot();
+
+		assertThat(snapshot.getCount(), is(0L));
+		assertThat(snapshot.getP99(), is(0L));
+		assertThat(snapshot.getMax(), is(0L));
+	}
+
+	@Test
+	public void shouldRecordReloadsPerResource() {
+		this.reloadMetrics.reloaded(this.resource, 3000, 2000, 1000, 4);
+		this.reloadMetrics.reloadSkipped(this.resource);
+		this.reloadMetrics.reloadFailed(this.resource);
+
+		final ResourceReloadStatistics statistics = this.reloadMetrics.getResourceStatistics()
+			.get(this.resource.getDescription());
+		assertThat(statistics.getReloadCount(), is(1L));
+		assertThat(statistics.getSkippedReloadCount(), is(1L));
+		assertThat(statistics.getFailedReloadCount(), is(1L));
+		assertThat(statistics.getParseLatency()
+			.getMax(), is(3L));
+		assertThat(statistics.getChangedProperties()
+			.getMax(), is(4L));
+		assertThat(this.reloadMetrics.getReloadCount(), is(1L));
+	}
+
+	@Test
+	public void shouldExposeMetricsAsMXBean() throws Exception {
+		this.reloadMetrics.reloaded(this.resource, 3000, 2000, 1000, 4);
+		this.reloadMetrics.fieldsWritten(5000, 2);
+		this.reloadMetrics.conversionFailed();
+		this.reloadMetrics.setSubscriberCounts(new Supplier<Map<String, Integer>>() {
+			@Override
+			public Map<String, Integer> get() {
+				return ImmutableMap.of("dynamicProperty.stringValue", 2);
+			}
+		});
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("com.morgan.design.properties:type=ReloadMetrics,name=unitTest");
+		server.registerMBean(this.reloadMetrics, name);
+		try {
+			final ReloadMetricsMXBean proxy = JMX.newMXBeanProxy(server, name, ReloadMetricsMXBean.class);
+			assertThat(proxy.getReloadCount(), is(1L));
+			assertThat(proxy.getFieldWriteCount(), is(2L));
+			assertThat(proxy.getConversionFailureCount(), is(1L));
+			assertThat(proxy.getSubscriberCounts()
+				.get("dynamicProperty.stringValue"), is(2));
+			assertThat(proxy.getResourceStatistics(), hasKey(this.resource.getDescription()));
+			assertThat(proxy.getResourceStatistics()
+				.get(this.resource.getDescription())
+				.getDispatchLatency()
+				.getCount(), is(1L));
+		}
+		finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	@Test
+	public void shouldRecordWatcherFailure() {
+		this.reloadMetrics.watcherStarted();
+		assertThat(this.reloadMetrics.isWatcherAlive(), is(true));
+
+		this.reloadMetrics.watcherStopped(new IllegalStateException("watch failed"));
+		assertThat(this.reloadMetrics.isWatcherAlive(), is(false));
+		assertThat(this.reloadMetrics.getWatcherFailure()
+			.contains("watch failed"), is(true));
+	}
+}
@@ -0,0 +1,56 @@
+package com.morgan.design.properties.testBeans;
+
+import org.springframework.stereotype.Component;
+
+import com.morgan.design.properties.ReloadableBoolean;
+import com.morgan.design.properties.ReloadableDouble;
+import com.morgan.design.properties.ReloadableInt;
+import com.morgan.design.properties.ReloadableLong;
+import com.morgan.design.properties.ReloadableProperty;
+import com.morgan.design.properties.ReloadableValue;
+
+@Component
+public class ReloadableHandleBean {
+
+	@ReloadableProperty("handle.stringValue")
+	private final ReloadableValue<String> stringValue = new ReloadableValue<String>();
+
+	@ReloadableProperty("handle.intValue")
+	private final ReloadableInt intValue = new ReloadableInt();
+
+	@ReloadableProperty("handle.longValue")
+	private final ReloadableLong longValue = new ReloadableLong();
+
+	@ReloadableProperty("handle.booleanValue")
+	private final ReloadableBoolean booleanValue = new ReloadableBoolean();
+
+	@ReloadableProperty("handle.doubleValue")
+	private final ReloadableDouble doubleValue = new ReloadableDouble();
+
+	@ReloadableProperty("handle.missingValue")
+	private final ReloadableInt defaultedValue = ReloadableInt.withDefault(55);
+
+	public ReloadableValue<String> getStringValue() {
+		return this.stringValue;
+	}
+
+	public ReloadableInt getIntValue() {
+		return this.intValue;
+	}
+
+	public ReloadableLong getLongValue() {
+		return this.longValue;
+	}
+
+	public ReloadableBoolean getBooleanValue() {
+		return this.booleanValue;
+	}
+
+	public ReloadableDouble getDoubleValue() {
+		return this.doubleValue;
+	}
+
+	public ReloadableInt getDefaultedValue() {
+		return this.defaultedValue;
+	}
+}